@@ -1,11 +1,25 @@
 package com.evaluation;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import java.util.Arrays;
+import java.util.Map;
 
 @SpringBootApplication
 public class AutoEvaluationApplication {
     public static void main(String[] args) {
-        SpringApplication.run(AutoEvaluationApplication.class, args);
+        SpringApplication application = new SpringApplication(AutoEvaluationApplication.class);
+        // --worker starts a grading-only node: no HTTP server, it just claims jobs from the shared queue
+        if (Arrays.asList(args).contains("--worker")) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+            application.setDefaultProperties(Map.of("evaluation.node.role", "worker"));
+        }
+        // --startup-steps records context startup steps for the slowest-steps list in /api/engine/startup
+        if (Arrays.asList(args).contains("--startup-steps")) {
+            application.setApplicationStartup(new BufferingApplicationStartup(10000));
+        }
+        application.run(args);
     }
 }
\ No newline at end of file
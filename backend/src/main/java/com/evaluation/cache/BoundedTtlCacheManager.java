@@ -0,0 +1,36 @@
+package com.evaluation.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fixed set of caches, each with its own size and time-to-live bounds. Unknown names return
+// null so a typo in a cache annotation fails at startup instead of silently caching nothing.
+public class BoundedTtlCacheManager implements CacheManager {
+
+    private final Map<String, BoundedTtlCache> caches = new LinkedHashMap<>();
+
+    public BoundedTtlCacheManager register(String name, int maxEntries, long ttlMillis) {
+        caches.put(name, new BoundedTtlCache(name, maxEntries, ttlMillis));
+        return this;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.get(name);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    public List<BoundedTtlCache> getCaches() {
+        return new ArrayList<>(caches.values());
+    }
+}
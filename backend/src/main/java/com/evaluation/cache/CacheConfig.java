@@ -0,0 +1,25 @@
+package com.evaluation.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RESULTS_BY_ASSIGNMENT = "resultsByAssignment";
+    public static final String STUDENT_RESULTS = "studentResults";
+
+    @Bean
+    public BoundedTtlCacheManager cacheManager(
+            @Value("${evaluation.cache.results.max-entries:50000}") int resultEntries,
+            @Value("${evaluation.cache.results.ttl-millis:10000}") long resultTtl,
+            @Value("${evaluation.cache.student-results.max-entries:20000}") int studentResultEntries,
+            @Value("${evaluation.cache.student-results.ttl-millis:30000}") long studentResultTtl) {
+        return new BoundedTtlCacheManager()
+            .register(RESULTS_BY_ASSIGNMENT, resultEntries, resultTtl)
+            .register(STUDENT_RESULTS, studentResultEntries, studentResultTtl);
+    }
+}
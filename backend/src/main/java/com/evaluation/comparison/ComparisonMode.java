@@ -0,0 +1,14 @@
+package com.evaluation.comparison;
+
+// How program output is matched against the expected output. In every mode leading and
+// trailing whitespace of the whole output is ignored and "\r\n" counts as a line break.
+public enum ComparisonMode {
+    // Lines must be identical
+    EXACT,
+    // Lines must have the same whitespace-separated tokens; blank lines are ignored
+    WHITESPACE,
+    // Like WHITESPACE, but numeric tokens match within the test case tolerance
+    FLOAT_TOLERANCE,
+    // Same lines (trimmed) in any order
+    UNORDERED_LINES
+}
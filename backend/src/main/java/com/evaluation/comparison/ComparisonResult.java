@@ -0,0 +1,35 @@
+package com.evaluation.comparison;
+
+// Outcome of comparing one output. Line counts cover the lines examined: a comparison without
+// partial credit stops at the first mismatching line.
+public final class ComparisonResult {
+
+    private final boolean match;
+    private final int matchedLines;
+    private final int expectedLines;
+    private final int actualLines;
+    private final int firstMismatchLine;
+    private final double credit;
+
+    ComparisonResult(boolean match, int matchedLines, int expectedLines, int actualLines, int firstMismatchLine,
+                     boolean partialCredit) {
+        this.match = match;
+        this.matchedLines = matchedLines;
+        this.expectedLines = expectedLines;
+        this.actualLines = actualLines;
+        this.firstMismatchLine = firstMismatchLine;
+        // Extra output lines count against the score, so printing every candidate answer does not pay off
+        int lines = Math.max(expectedLines, actualLines);
+        this.credit = match ? 1.0 : partialCredit && lines > 0 ? (double) matchedLines / lines : 0.0;
+    }
+
+    // Getters
+    public boolean isMatch() { return match; }
+    public int getMatchedLines() { return matchedLines; }
+    public int getExpectedLines() { return expectedLines; }
+    public int getActualLines() { return actualLines; }
+    // 1-based line of the expected output where the first difference was found, 0 on a match
+    public int getFirstMismatchLine() { return firstMismatchLine; }
+    // Share of the test case weight earned, between 0 and 1
+    public double getCredit() { return credit; }
+}
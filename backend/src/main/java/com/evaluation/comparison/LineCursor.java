@@ -0,0 +1,73 @@
+package com.evaluation.comparison;
+
+// Walks the lines of a region of a CharSequence without copying them. The region excludes
+// leading and trailing whitespace of the whole text, so trailing newlines never form lines.
+final class LineCursor {
+
+    private final CharSequence text;
+    private final int end;
+    private final boolean skipBlank;
+    private int position;
+    private int lineStart;
+    private int lineEnd;
+    private int lineNumber;
+
+    LineCursor(CharSequence text, boolean skipBlank) {
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        this.text = text;
+        this.end = end;
+        this.skipBlank = skipBlank;
+        this.position = start;
+    }
+
+    boolean next() {
+        while (position < end) {
+            lineStart = position;
+            int newline = position;
+            while (newline < end && text.charAt(newline) != '\n') {
+                newline++;
+            }
+            lineEnd = newline > lineStart && text.charAt(newline - 1) == '\r' ? newline - 1 : newline;
+            position = newline + 1;
+            lineNumber++;
+            if (!skipBlank || !isBlank()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBlank() {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    CharSequence text() { return text; }
+    int start() { return lineStart; }
+    int end() { return lineEnd; }
+    // 1-based, counting skipped blank lines
+    int lineNumber() { return lineNumber; }
+
+    String trimmedLine() {
+        int start = lineStart;
+        int end = lineEnd;
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.subSequence(start, end).toString();
+    }
+}
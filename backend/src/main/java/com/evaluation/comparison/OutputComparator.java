@@ -0,0 +1,154 @@
+package com.evaluation.comparison;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Compares program output with the expected output line by line over the original character
+// sequences, without trimming, splitting or otherwise copying large outputs. Without partial
+// credit the comparison stops at the first mismatching line.
+public final class OutputComparator {
+
+    public static final double DEFAULT_TOLERANCE = 1e-6;
+
+    private OutputComparator() {}
+
+    public static ComparisonResult compare(CharSequence expected, CharSequence actual, ComparisonMode mode,
+                                           double tolerance, boolean partialCredit) {
+        // A test case stored without an expected output expects no output; it must not fail
+        // the whole submission
+        if (expected == null) {
+            expected = "";
+        }
+        if (actual == null) {
+            actual = "";
+        }
+        if (mode == ComparisonMode.UNORDERED_LINES) {
+            return compareUnordered(expected, actual, partialCredit);
+        }
+
+        boolean tokenized = mode == ComparisonMode.WHITESPACE || mode == ComparisonMode.FLOAT_TOLERANCE;
+        boolean numeric = mode == ComparisonMode.FLOAT_TOLERANCE;
+        LineCursor expectedCursor = new LineCursor(expected, tokenized);
+        LineCursor actualCursor = new LineCursor(actual, tokenized);
+
+        int matched = 0;
+        int expectedLines = 0;
+        int actualLines = 0;
+        int firstMismatch = 0;
+        while (true) {
+            boolean hasExpected = expectedCursor.next();
+            boolean hasActual = actualCursor.next();
+            if (!hasExpected && !hasActual) {
+                break;
+            }
+            if (hasExpected) expectedLines++;
+            if (hasActual) actualLines++;
+
+            if (hasExpected && hasActual && (tokenized
+                    ? tokensMatch(expectedCursor, actualCursor, numeric, tolerance)
+                    : linesMatch(expectedCursor, actualCursor))) {
+                matched++;
+                continue;
+            }
+            if (firstMismatch == 0) {
+                firstMismatch = expectedCursor.lineNumber() + (hasExpected ? 0 : 1);
+            }
+            if (!partialCredit) {
+                break;
+            }
+        }
+        return new ComparisonResult(firstMismatch == 0, matched, expectedLines, actualLines, firstMismatch, partialCredit);
+    }
+
+    // Only the expected lines are held in memory; the mismatch line is a line of the actual output
+    private static ComparisonResult compareUnordered(CharSequence expected, CharSequence actual, boolean partialCredit) {
+        Map<String, Integer> remaining = new HashMap<>();
+        int expectedLines = 0;
+        LineCursor expectedCursor = new LineCursor(expected, true);
+        while (expectedCursor.next()) {
+            remaining.merge(expectedCursor.trimmedLine(), 1, Integer::sum);
+            expectedLines++;
+        }
+
+        int matched = 0;
+        int actualLines = 0;
+        int firstMismatch = 0;
+        LineCursor actualCursor = new LineCursor(actual, true);
+        while (actualCursor.next()) {
+            actualLines++;
+            String line = actualCursor.trimmedLine();
+            Integer count = remaining.get(line);
+            if (count != null) {
+                if (count == 1) {
+                    remaining.remove(line);
+                } else {
+                    remaining.put(line, count - 1);
+                }
+                matched++;
+                continue;
+            }
+            if (firstMismatch == 0) {
+                firstMismatch = actualCursor.lineNumber();
+            }
+            if (!partialCredit) {
+                break;
+            }
+        }
+        if (firstMismatch == 0 && !remaining.isEmpty()) {
+            firstMismatch = actualCursor.lineNumber() + 1;
+        }
+        return new ComparisonResult(firstMismatch == 0, matched, expectedLines, actualLines, firstMismatch, partialCredit);
+    }
+
+    private static boolean linesMatch(LineCursor expected, LineCursor actual) {
+        return regionEquals(expected.text(), expected.start(), expected.end(), actual.text(), actual.start(), actual.end());
+    }
+
+    private static boolean tokensMatch(LineCursor expected, LineCursor actual, boolean numeric, double tolerance) {
+        CharSequence a = expected.text();
+        CharSequence b = actual.text();
+        int i = expected.start();
+        int j = actual.start();
+        int aEnd = expected.end();
+        int bEnd = actual.end();
+        while (true) {
+            while (i < aEnd && Character.isWhitespace(a.charAt(i))) i++;
+            while (j < bEnd && Character.isWhitespace(b.charAt(j))) j++;
+            if (i >= aEnd || j >= bEnd) {
+                return i >= aEnd && j >= bEnd;
+            }
+            int aStart = i;
+            int bStart = j;
+            while (i < aEnd && !Character.isWhitespace(a.charAt(i))) i++;
+            while (j < bEnd && !Character.isWhitespace(b.charAt(j))) j++;
+            if (!regionEquals(a, aStart, i, b, bStart, j)
+                    && !(numeric && numbersMatch(a.subSequence(aStart, i), b.subSequence(bStart, j), tolerance))) {
+                return false;
+            }
+        }
+    }
+
+    private static boolean regionEquals(CharSequence a, int aStart, int aEnd, CharSequence b, int bStart, int bEnd) {
+        if (aEnd - aStart != bEnd - bStart) {
+            return false;
+        }
+        for (int i = aStart, j = bStart; i < aEnd; i++, j++) {
+            if (a.charAt(i) != b.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Absolute or relative difference within tolerance
+    private static boolean numbersMatch(CharSequence expected, CharSequence actual, double tolerance) {
+        try {
+            double x = Double.parseDouble(expected.toString());
+            double y = Double.parseDouble(actual.toString());
+            double difference = Math.abs(x - y);
+            return difference <= tolerance || difference <= tolerance * Math.max(Math.abs(x), Math.abs(y));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
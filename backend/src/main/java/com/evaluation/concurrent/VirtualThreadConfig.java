@@ -0,0 +1,22 @@
+package com.evaluation.concurrent;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Opt-in: evaluation.threads.virtual=true serves each HTTP request on its own virtual thread,
+// so requests blocked on JDBC or DynamoDB do not hold one of Tomcat's 200 platform threads
+@Configuration
+@ConditionalOnProperty(name = "evaluation.threads.virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler() {
+        return protocolHandler -> {
+            if (VirtualThreads.enabled(true)) {
+                protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-virtual-"));
+            }
+        };
+    }
+}
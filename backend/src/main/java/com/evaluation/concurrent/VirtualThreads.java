@@ -0,0 +1,80 @@
+package com.evaluation.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Virtual threads for JDK 21+ runtimes. The build still targets Java 11, so the JDK API is
+// reached reflectively; on older runtimes every call falls back to daemon platform threads.
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = lookupOfVirtual();
+    private static final AtomicBoolean fallbackReported = new AtomicBoolean();
+
+    private VirtualThreads() {}
+
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    // Whether a component configured for virtual threads actually gets them
+    public static boolean enabled(boolean requested) {
+        if (requested && !isSupported() && fallbackReported.compareAndSet(false, true)) {
+            System.err.println("Virtual threads requested but not available on Java "
+                + System.getProperty("java.specification.version") + ", using platform threads");
+        }
+        return requested && isSupported();
+    }
+
+    // Threads named prefix1, prefix2, ...
+    public static ThreadFactory factory(String prefix) {
+        if (!isSupported()) {
+            return platformFactory(prefix);
+        }
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread factory", e);
+        }
+    }
+
+    // One new virtual thread per task; callers bound concurrency themselves where work is CPU-bound
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        if (!isSupported()) {
+            return Executors.newCachedThreadPool(factory);
+        }
+        try {
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static ThreadFactory platformFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Also null on JDK 19/20, where the method exists but throws unless preview features are enabled
+    private static Method lookupOfVirtual() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            ofVirtual.invoke(null);
+            return ofVirtual;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -1,16 +1,37 @@
 package com.evaluation.controller;
 
+import com.evaluation.cache.BoundedTtlCache;
+import com.evaluation.cache.BoundedTtlCacheManager;
+import com.evaluation.dto.AssignmentSummary;
+import com.evaluation.dto.ResultSummary;
+import com.evaluation.events.ResultStreamService;
+import com.evaluation.execution.CompilationCache;
 import com.evaluation.model.*;
 import com.evaluation.service.EvaluationService;
+import com.evaluation.service.GradingJobQueue;
+import com.evaluation.service.GradingJobWorker;
+import com.evaluation.service.GradingQueueFullException;
+import com.evaluation.service.RegradeJob;
+import com.evaluation.service.RegradeService;
+import com.evaluation.service.ResultExportService;
+import com.evaluation.service.SubmissionDeduplicator;
+import com.evaluation.startup.StartupReport;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api")
@@ -20,19 +41,91 @@ public class EvaluationController {
     @Autowired
     private EvaluationService evaluationService;
 
+    @Autowired
+    private RegradeService regradeService;
+
+    @Autowired
+    private ResultExportService resultExportService;
+
+    @Autowired
+    private CompilationCache compilationCache;
+
+    @Autowired
+    private EvaluationEngine evaluationEngine;
+
+    @Autowired
+    private BoundedTtlCacheManager cacheManager;
+
+    @Autowired
+    private StartupReport startupReport;
+
+    @Autowired
+    private SubmissionDeduplicator submissionDeduplicator;
+
+    @Autowired
+    private GradingJobQueue gradingJobQueue;
+
+    @Autowired
+    private GradingJobWorker gradingJobWorker;
+
+    @Autowired
+    private ResultStreamService resultStreamService;
+
+    @Value("${evaluation.grading.async:true}")
+    private boolean asyncGrading;
+
     @PostMapping("/assignments/submit")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<?> submitAssignment(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> submitAssignment(@RequestBody Map<String, String> request,
+                                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             String studentId = request.get("studentId");
             String title = request.get("title");
             String codeContent = request.get("codeContent");
             String deadlineStr = request.get("deadline");
+            String assignmentType = request.get("assignmentType");
+
+            if (assignmentType != null && !assignmentType.isEmpty()
+                    && !evaluationEngine.getTypeRegistry().contains(assignmentType)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                        "success", false,
+                        "message", "Unknown assignment type: " + assignmentType
+                ));
+            }
 
             // Parse deadline
             LocalDateTime deadline = LocalDateTime.parse(deadlineStr, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 
-            Assignment assignment = evaluationService.submitAssignment(studentId, title, codeContent, deadline);
+            // Retries and double-clicks attach to the submission already made for the same key
+            SubmissionDeduplicator.Claim claim = submissionDeduplicator.claim(
+                    submissionDeduplicator.keyFor(idempotencyKey, studentId, title, codeContent));
+            if (!claim.isOwner()) {
+                return replaySubmission(claim.await());
+            }
+
+            Assignment assignment;
+            try {
+                assignment = asyncGrading
+                        ? evaluationService.acceptAssignment(studentId, title, codeContent, deadline, assignmentType)
+                        : evaluationService.submitAssignment(studentId, title, codeContent, deadline, assignmentType);
+            } catch (Throwable t) {
+                // Errors too, or duplicates would wait on a claim that never completes
+                claim.fail(t);
+                throw t;
+            }
+            claim.complete(assignment.getAssignmentId());
+
+            if (asyncGrading) {
+                EvaluationResult pending = assignment.getEvaluationResult();
+
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                        "success", true,
+                        "message", "Assignment submitted and queued for evaluation",
+                        "assignmentId", assignment.getAssignmentId(),
+                        "status", pending.getStatus(),
+                        "evaluationResult", pending
+                ));
+            }
 
             return ResponseEntity.ok().body(Map.of(
                     "success", true,
@@ -41,6 +134,20 @@ public class EvaluationController {
                     "evaluationResult", assignment.getEvaluationResult()
             ));
 
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", "An identical submission is still being processed"
+            ));
+
+        } catch (GradingQueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()
+                    ));
+
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
                     "success", false,
@@ -49,18 +156,66 @@ public class EvaluationController {
         }
     }
 
-    @GetMapping("/assignments/student/{studentId}")
+    // Answers a duplicate with the original submission's current state
+    private ResponseEntity<?> replaySubmission(Long assignmentId) {
+        EvaluationResult result = evaluationService.getEvaluationResult(assignmentId).orElse(null);
+        boolean done = result != null && result.getStatus() == EvaluationStatus.DONE;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", true);
+        body.put("message", "Duplicate submission, returning the original");
+        body.put("assignmentId", assignmentId);
+        body.put("duplicate", true);
+        if (result != null) {
+            body.put("status", result.getStatus());
+            body.put("evaluationResult", result);
+        }
+        return ResponseEntity.status(done ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                .header("Idempotent-Replayed", "true")
+                .body(body);
+    }
+
+    @PostMapping("/assignments/regrade")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<List<Assignment>> getStudentAssignments(@PathVariable String studentId) {
-        List<Assignment> assignments = evaluationService.getStudentAssignments(studentId);
-        return ResponseEntity.ok(assignments);
+    public ResponseEntity<RegradeJob> regradeAssignments(@RequestParam String title) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(regradeService.startRegrade(title));
     }
 
-    @GetMapping("/results/student/{studentId}")
+    @GetMapping("/assignments/regrade/{jobId}")
     @CrossOrigin(origins = "*")
-    public ResponseEntity<List<EvaluationResult>> getStudentResults(@PathVariable String studentId) {
-        List<EvaluationResult> results = evaluationService.getStudentResults(studentId);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<?> getRegradeProgress(@PathVariable String jobId) {
+        Optional<RegradeJob> job = regradeService.getJob(jobId);
+        if (job.isPresent()) {
+            return ResponseEntity.ok(job.get());
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/assignments/student/{studentId}")
+    @CrossOrigin(origins = "*", exposedHeaders = "X-Next-Before")
+    public ResponseEntity<List<AssignmentSummary>> getStudentAssignments(@PathVariable String studentId,
+                                                                         @RequestParam(required = false) Long before,
+                                                                         @RequestParam(defaultValue = "50") int limit,
+                                                                         @RequestParam(defaultValue = "false") boolean includeCode) {
+        List<AssignmentSummary> assignments = evaluationService.getStudentAssignments(studentId, before, limit, includeCode);
+        return withNextCursor(assignments, limit, assignments.isEmpty() ? null : assignments.get(assignments.size() - 1).getAssignmentId());
+    }
+
+    @GetMapping("/results/student/{studentId}")
+    @CrossOrigin(origins = "*", exposedHeaders = "X-Next-Before")
+    public ResponseEntity<List<ResultSummary>> getStudentResults(@PathVariable String studentId,
+                                                                 @RequestParam(required = false) Long before,
+                                                                 @RequestParam(defaultValue = "50") int limit,
+                                                                 @RequestParam(defaultValue = "false") boolean includeFeedback) {
+        List<ResultSummary> results = evaluationService.getStudentResults(studentId, before, limit, includeFeedback);
+        return withNextCursor(results, limit, results.isEmpty() ? null : results.get(results.size() - 1).getAssignmentId());
+    }
+
+    // A full page advertises the cursor for the next one; pass it back as ?before=
+    private static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int limit, Long lastAssignmentId) {
+        if (lastAssignmentId != null && page.size() >= Math.min(limit, EvaluationService.MAX_PAGE_SIZE)) {
+            return ResponseEntity.ok().header("X-Next-Before", String.valueOf(lastAssignmentId)).body(page);
+        }
+        return ResponseEntity.ok(page);
     }
 
     @GetMapping("/assignments/{assignmentId}")
@@ -73,6 +228,31 @@ public class EvaluationController {
         return ResponseEntity.notFound().build();
     }
 
+    // Grade export, streamed while it is read from the database; format is csv or ndjson
+    @GetMapping("/results/export")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<?> exportResults(@RequestParam(defaultValue = "csv") String format,
+                                           @RequestParam(required = false) String title) {
+        ResultExportService.Format exportFormat;
+        try {
+            exportFormat = ResultExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "success", false,
+                    "message", "Unsupported export format: " + format
+            ));
+        }
+
+        String filename = "results-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "." + exportFormat.getExtension();
+        StreamingResponseBody body = out -> resultExportService.export(title, exportFormat, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .body(body);
+    }
+
     @GetMapping("/results/assignment/{assignmentId}")
     @CrossOrigin(origins = "*")
     public ResponseEntity<?> getEvaluationResult(@PathVariable Long assignmentId) {
@@ -83,6 +263,129 @@ public class EvaluationController {
         return ResponseEntity.notFound().build();
     }
 
+    // Server-Sent Events: the current result first, then each status change until it is graded
+    @GetMapping(value = "/results/assignment/{assignmentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<SseEmitter> streamEvaluationResult(@PathVariable Long assignmentId) {
+        Optional<EvaluationResult> result = evaluationService.getEvaluationResult(assignmentId);
+        if (!result.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        return eventStream(resultStreamService.openAssignmentStream(assignmentId, result.get()));
+    }
+
+    // Server-Sent Events for every result update of the student's submissions while connected
+    @GetMapping(value = "/results/student/{studentId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<SseEmitter> streamStudentResults(@PathVariable String studentId) {
+        return eventStream(resultStreamService.openStudentStream(studentId));
+    }
+
+    private ResponseEntity<SseEmitter> eventStream(Optional<SseEmitter> emitter) {
+        if (!emitter.isPresent()) {
+            // Connection limit reached; clients fall back to polling
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                // Stops nginx from buffering the stream
+                .header("X-Accel-Buffering", "no")
+                .body(emitter.get());
+    }
+
+    @GetMapping("/assignment-types")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<List<AssignmentDefinition>> getAssignmentTypes() {
+        return ResponseEntity.ok(evaluationEngine.getTypeRegistry().getDefinitions());
+    }
+
+    @GetMapping("/engine/compilation-cache")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getCompilationCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "hits", compilationCache.getHits(),
+                "diskHits", compilationCache.getDiskHits(),
+                "misses", compilationCache.getMisses(),
+                "evictions", compilationCache.getEvictions(),
+                "entries", compilationCache.getSize(),
+                "sizeBytes", compilationCache.getSizeBytes(),
+                "maxBytes", compilationCache.getMaxBytes()
+        ));
+    }
+
+    @GetMapping("/engine/result-cache")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getResultCacheStats() {
+        EvaluationResultCache resultCache = evaluationEngine.getResultCache();
+        return ResponseEntity.ok(Map.of(
+                "hits", resultCache.getHits(),
+                "misses", resultCache.getMisses(),
+                "evictions", resultCache.getEvictions(),
+                "entries", resultCache.getSize(),
+                "maxEntries", resultCache.getMaxEntries()
+        ));
+    }
+
+    @GetMapping("/engine/lookup-caches")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getLookupCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (BoundedTtlCache cache : cacheManager.getCaches()) {
+            stats.put(cache.getName(), Map.of(
+                    "hits", cache.getHits(),
+                    "misses", cache.getMisses(),
+                    "evictions", cache.getEvictions(),
+                    "expirations", cache.getExpirations(),
+                    "entries", cache.getSize(),
+                    "maxEntries", cache.getMaxEntries(),
+                    "ttlMillis", cache.getTtlMillis()
+            ));
+        }
+        return ResponseEntity.ok(stats);
+    }
+
+    // Cluster-wide job counts from the table plus what the worker on this node has done
+    @GetMapping("/engine/grading-jobs")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getGradingJobStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Map<String, Long> jobs = new LinkedHashMap<>();
+        for (GradingJobStatus status : GradingJobStatus.values()) {
+            jobs.put(status.name(), gradingJobQueue.countByStatus(status));
+        }
+        stats.put("jobs", jobs);
+        stats.put("worker", Map.of(
+                "nodeId", gradingJobWorker.getNodeId(),
+                "enabled", gradingJobWorker.isEnabled(),
+                "inProgress", gradingJobWorker.getInProgress(),
+                "claimed", gradingJobWorker.getClaimed(),
+                "completed", gradingJobWorker.getCompleted(),
+                "retried", gradingJobWorker.getRetried(),
+                "failed", gradingJobWorker.getFailed()
+        ));
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/engine/result-streams")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getResultStreamStats() {
+        return ResponseEntity.ok(Map.of(
+                "connections", resultStreamService.getConnections(),
+                "watchedAssignments", resultStreamService.getWatchedAssignments(),
+                "eventsSent", resultStreamService.getEventsSent(),
+                "overflows", resultStreamService.getOverflows(),
+                "sweepUpdates", resultStreamService.getSweepUpdates()
+        ));
+    }
+
+    @GetMapping("/engine/startup")
+    @CrossOrigin(origins = "*")
+    public ResponseEntity<Map<String, Object>> getStartupReport() {
+        return ResponseEntity.ok(startupReport.toMap());
+    }
+
     @GetMapping("/health")
     @CrossOrigin(origins = "*")
     public ResponseEntity<Map<String, String>> healthCheck() {
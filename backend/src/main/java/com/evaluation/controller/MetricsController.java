@@ -0,0 +1,40 @@
+package com.evaluation.controller;
+
+import com.evaluation.metrics.MetricsRegistry;
+import com.evaluation.metrics.Trace;
+import com.evaluation.metrics.Tracer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/metrics")
+@CrossOrigin(origins = "*")
+public class MetricsController {
+
+    // Prometheus text exposition format, version 0.0.4
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain; version=0.0.4; charset=utf-8");
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    @GetMapping("/prometheus")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metricsRegistry.scrape());
+    }
+
+    @GetMapping("/traces")
+    public ResponseEntity<List<Trace>> getRecentTraces(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(tracer.getRecentTraces(limit));
+    }
+
+    @GetMapping("/traces/slow")
+    public ResponseEntity<List<Trace>> getSlowTraces(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(tracer.getSlowTraces(limit));
+    }
+}
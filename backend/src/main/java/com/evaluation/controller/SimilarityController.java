@@ -0,0 +1,42 @@
+package com.evaluation.controller;
+
+import com.evaluation.dto.SimilarSubmission;
+import com.evaluation.similarity.SimilarityReportJob;
+import com.evaluation.similarity.SimilarityService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+// Near-duplicate submissions within an assignment title
+@RestController
+@RequestMapping("/api/similarity")
+@CrossOrigin(origins = "*")
+public class SimilarityController {
+
+    @Autowired
+    private SimilarityService similarityService;
+
+    @GetMapping("/assignments/{assignmentId}")
+    public ResponseEntity<List<SimilarSubmission>> getSimilar(@PathVariable Long assignmentId,
+                                                              @RequestParam(defaultValue = "10") int k,
+                                                              @RequestParam(defaultValue = "0.5") double minSimilarity) {
+        return similarityService.findSimilar(assignmentId, k, minSimilarity)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Clusters the latest submission of every student of a title; poll the returned job for the report
+    @PostMapping("/reports")
+    public ResponseEntity<SimilarityReportJob> startReport(@RequestParam String title) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(similarityService.startReport(title));
+    }
+
+    @GetMapping("/reports/{jobId}")
+    public ResponseEntity<SimilarityReportJob> getReport(@PathVariable String jobId) {
+        return similarityService.getReport(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,49 @@
+package com.evaluation.controller;
+
+import com.evaluation.dto.AssignmentStatsView;
+import com.evaluation.stats.GradeStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+// Live grade statistics per assignment type, served from memory
+@RestController
+@RequestMapping("/api/stats")
+@CrossOrigin(origins = "*")
+public class StatsController {
+
+    @Autowired
+    private GradeStatsService gradeStatsService;
+
+    @GetMapping("/assignments")
+    public ResponseEntity<List<AssignmentStatsView>> getAllStats() {
+        return ResponseEntity.ok(gradeStatsService.getAllStats());
+    }
+
+    @GetMapping("/assignments/{assignmentType}")
+    public ResponseEntity<AssignmentStatsView> getStats(@PathVariable String assignmentType) {
+        return gradeStatsService.getStats(assignmentType)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Recomputes the totals from every stored result; needed after results are edited in the database
+    @PostMapping("/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuild() {
+        try {
+            gradeStatsService.rebuild();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "types", gradeStatsService.getAllStats().size()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", String.valueOf(e.getMessage())
+            ));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.evaluation.controller;
+
+import com.evaluation.model.TestCase;
+import com.evaluation.model.TestSuiteSnapshot;
+import com.evaluation.service.TestSuiteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/test-suites")
+@CrossOrigin(origins = "*")
+public class TestSuiteController {
+
+    @Autowired
+    private TestSuiteService testSuiteService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getSnapshotInfo() {
+        return ResponseEntity.ok(describe(testSuiteService.getSnapshot()));
+    }
+
+    @GetMapping("/{assignmentType}")
+    public ResponseEntity<List<TestCase>> getSuite(@PathVariable String assignmentType) {
+        List<TestCase> suite = testSuiteService.getSuite(assignmentType);
+        if (suite.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(suite);
+    }
+
+    // Picks up edits made directly in the database
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload() {
+        return ResponseEntity.ok(describe(testSuiteService.reload()));
+    }
+
+    @PutMapping("/{assignmentType}")
+    public ResponseEntity<?> replaceSuite(@PathVariable String assignmentType, @RequestBody List<TestCase> testCases) {
+        try {
+            return ResponseEntity.ok(describe(testSuiteService.replaceSuite(assignmentType, testCases)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        }
+    }
+
+    private static Map<String, Object> describe(TestSuiteSnapshot snapshot) {
+        return Map.of(
+                "version", snapshot.getVersion(),
+                "loadedAt", snapshot.getLoadedAt().toString(),
+                "suites", snapshot.getSuites().keySet()
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.evaluation.dto;
+
+import java.util.List;
+import java.util.Map;
+
+// Live grade statistics of one assignment type
+public class AssignmentStatsView {
+    private final String assignmentType;
+    private final long results;
+    private final long passed;
+    private final double passRate;
+    private final double averageScore;
+    private final long compileFailures;
+    private final Map<String, Long> grades;
+    private final List<TestCaseStats> tests;
+
+    public AssignmentStatsView(String assignmentType, long results, long passed, double scoreSum, long compileFailures,
+                               Map<String, Long> grades, List<TestCaseStats> tests) {
+        this.assignmentType = assignmentType;
+        this.results = results;
+        this.passed = passed;
+        this.passRate = results > 0 ? (double) passed / results : 0.0;
+        this.averageScore = results > 0 ? scoreSum / results : 0.0;
+        this.compileFailures = compileFailures;
+        this.grades = grades;
+        this.tests = tests;
+    }
+
+    // Getters
+    public String getAssignmentType() { return assignmentType; }
+    public long getResults() { return results; }
+    public long getPassed() { return passed; }
+    public double getPassRate() { return passRate; }
+    public double getAverageScore() { return averageScore; }
+    public long getCompileFailures() { return compileFailures; }
+    public Map<String, Long> getGrades() { return grades; }
+    public List<TestCaseStats> getTests() { return tests; }
+
+    // Outcomes of the test case at one suite position, over results that ran the tests
+    public static class TestCaseStats {
+        private final int position;
+        private final String description;
+        private final long runs;
+        private final long failures;
+        private final double failureRate;
+
+        public TestCaseStats(int position, String description, long runs, long failures) {
+            this.position = position;
+            this.description = description;
+            this.runs = runs;
+            this.failures = failures;
+            this.failureRate = runs > 0 ? (double) failures / runs : 0.0;
+        }
+
+        public int getPosition() { return position; }
+        public String getDescription() { return description; }
+        public long getRuns() { return runs; }
+        public long getFailures() { return failures; }
+        public double getFailureRate() { return failureRate; }
+    }
+}
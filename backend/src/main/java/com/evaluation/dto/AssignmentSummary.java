@@ -0,0 +1,67 @@
+package com.evaluation.dto;
+
+import com.evaluation.model.EvaluationStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+// List view of a submission with its result flattened in; built directly by a JPQL
+// constructor query so no entities, proxies or lazy associations are involved
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AssignmentSummary {
+    private final Long assignmentId;
+    private final String title;
+    private final String assignmentType;
+    private final LocalDateTime submissionTime;
+    private final LocalDateTime deadline;
+    private final EvaluationStatus status;
+    private final Double score;
+    private final Boolean passed;
+    private final String codeContent;
+    private final String sourceHash;
+
+    public AssignmentSummary(Long assignmentId, String title, String assignmentType, LocalDateTime submissionTime,
+                             LocalDateTime deadline, EvaluationStatus status, Double score, Boolean passed) {
+        this(assignmentId, title, assignmentType, submissionTime, deadline, status, score, passed, null, null);
+    }
+
+    public AssignmentSummary(Long assignmentId, String title, String assignmentType, LocalDateTime submissionTime,
+                             LocalDateTime deadline, EvaluationStatus status, Double score, Boolean passed,
+                             String codeContent, String sourceHash) {
+        this.assignmentId = assignmentId;
+        this.title = title;
+        this.assignmentType = assignmentType;
+        this.submissionTime = submissionTime;
+        this.deadline = deadline;
+        // Result rows written before statuses existed are complete results, as in ResultSummary and
+        // ResultExportRow; passed is only null when the left join found no result at all
+        this.status = status == null && passed != null ? EvaluationStatus.DONE : status;
+        this.score = score;
+        this.passed = passed;
+        this.codeContent = codeContent;
+        this.sourceHash = sourceHash;
+    }
+
+    public AssignmentSummary withCodeContent(String codeContent) {
+        return new AssignmentSummary(assignmentId, title, assignmentType, submissionTime, deadline, status, score, passed,
+            codeContent, sourceHash);
+    }
+
+    // Getters
+    public Long getAssignmentId() { return assignmentId; }
+    public String getTitle() { return title; }
+    public String getAssignmentType() { return assignmentType; }
+    public LocalDateTime getSubmissionTime() { return submissionTime; }
+    public LocalDateTime getDeadline() { return deadline; }
+    public EvaluationStatus getStatus() { return status; }
+    public Double getScore() { return score; }
+    public Boolean getPassed() { return passed; }
+    public String getCodeContent() { return codeContent; }
+
+    @JsonIgnore
+    public String getSourceHash() { return sourceHash; }
+
+    public boolean isLate() {
+        return submissionTime != null && deadline != null && submissionTime.isAfter(deadline);
+    }
+}
@@ -0,0 +1,55 @@
+package com.evaluation.dto;
+
+import com.evaluation.model.EvaluationStatus;
+import java.time.LocalDateTime;
+
+// One line of the grade export; projected straight from the result, submission and student rows
+public class ResultExportRow {
+    private final Long resultId;
+    private final Long assignmentId;
+    private final String studentId;
+    private final String studentName;
+    private final String title;
+    private final String assignmentType;
+    private final LocalDateTime submissionTime;
+    private final LocalDateTime deadline;
+    private final double score;
+    private final boolean passed;
+    private final EvaluationStatus status;
+    private final LocalDateTime evaluatedAt;
+
+    public ResultExportRow(Long resultId, Long assignmentId, String studentId, String studentName, String title,
+                           String assignmentType, LocalDateTime submissionTime, LocalDateTime deadline, double score,
+                           boolean passed, EvaluationStatus status, LocalDateTime evaluatedAt) {
+        this.resultId = resultId;
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.studentName = studentName;
+        this.title = title;
+        this.assignmentType = assignmentType;
+        this.submissionTime = submissionTime;
+        this.deadline = deadline;
+        this.score = score;
+        this.passed = passed;
+        this.status = status != null ? status : EvaluationStatus.DONE;
+        this.evaluatedAt = evaluatedAt;
+    }
+
+    // Getters
+    public Long getResultId() { return resultId; }
+    public Long getAssignmentId() { return assignmentId; }
+    public String getStudentId() { return studentId; }
+    public String getStudentName() { return studentName; }
+    public String getTitle() { return title; }
+    public String getAssignmentType() { return assignmentType; }
+    public LocalDateTime getSubmissionTime() { return submissionTime; }
+    public LocalDateTime getDeadline() { return deadline; }
+    public double getScore() { return score; }
+    public boolean isPassed() { return passed; }
+    public EvaluationStatus getStatus() { return status; }
+    public LocalDateTime getEvaluatedAt() { return evaluatedAt; }
+
+    public boolean isLate() {
+        return submissionTime != null && deadline != null && submissionTime.isAfter(deadline);
+    }
+}
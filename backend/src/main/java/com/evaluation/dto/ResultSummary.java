@@ -0,0 +1,53 @@
+package com.evaluation.dto;
+
+import com.evaluation.model.EvaluationStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.LocalDateTime;
+
+// List view of an evaluation result together with the submission it belongs to
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultSummary {
+    private final Long resultId;
+    private final Long assignmentId;
+    private final String title;
+    private final LocalDateTime submissionTime;
+    private final double score;
+    private final boolean passed;
+    private final EvaluationStatus status;
+    private final String remarks;
+    private final LocalDateTime timestamp;
+    private final String detailedFeedback;
+
+    public ResultSummary(Long resultId, Long assignmentId, String title, LocalDateTime submissionTime, double score,
+                         boolean passed, EvaluationStatus status, String remarks, LocalDateTime timestamp) {
+        this(resultId, assignmentId, title, submissionTime, score, passed, status, remarks, timestamp, null);
+    }
+
+    public ResultSummary(Long resultId, Long assignmentId, String title, LocalDateTime submissionTime, double score,
+                         boolean passed, EvaluationStatus status, String remarks, LocalDateTime timestamp,
+                         String detailedFeedback) {
+        this.resultId = resultId;
+        this.assignmentId = assignmentId;
+        this.title = title;
+        this.submissionTime = submissionTime;
+        this.score = score;
+        this.passed = passed;
+        // Rows written before statuses existed are complete results
+        this.status = status != null ? status : EvaluationStatus.DONE;
+        this.remarks = remarks;
+        this.timestamp = timestamp;
+        this.detailedFeedback = detailedFeedback;
+    }
+
+    // Getters
+    public Long getResultId() { return resultId; }
+    public Long getAssignmentId() { return assignmentId; }
+    public String getTitle() { return title; }
+    public LocalDateTime getSubmissionTime() { return submissionTime; }
+    public double getScore() { return score; }
+    public boolean isPassed() { return passed; }
+    public EvaluationStatus getStatus() { return status; }
+    public String getRemarks() { return remarks; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public String getDetailedFeedback() { return detailedFeedback; }
+}
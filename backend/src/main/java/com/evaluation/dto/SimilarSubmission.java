@@ -0,0 +1,19 @@
+package com.evaluation.dto;
+
+// A submission found similar to another; similarity is the estimated Jaccard similarity of their normalized sources
+public class SimilarSubmission {
+    private final Long assignmentId;
+    private final String studentId;
+    private final double similarity;
+
+    public SimilarSubmission(Long assignmentId, String studentId, double similarity) {
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.similarity = similarity;
+    }
+
+    // Getters
+    public Long getAssignmentId() { return assignmentId; }
+    public String getStudentId() { return studentId; }
+    public double getSimilarity() { return similarity; }
+}
@@ -0,0 +1,36 @@
+package com.evaluation.dto;
+
+import java.util.List;
+
+// Submissions of different students linked by pairwise similarity at or above the report threshold.
+// Linking is transitive, so two members may be less similar to each other than any link in the chain.
+public class SimilarityCluster {
+    private final List<Member> members;
+    private final double minLinkSimilarity;
+    private final double maxLinkSimilarity;
+
+    public SimilarityCluster(List<Member> members, double minLinkSimilarity, double maxLinkSimilarity) {
+        this.members = members;
+        this.minLinkSimilarity = minLinkSimilarity;
+        this.maxLinkSimilarity = maxLinkSimilarity;
+    }
+
+    // Getters
+    public int getSize() { return members.size(); }
+    public List<Member> getMembers() { return members; }
+    public double getMinLinkSimilarity() { return minLinkSimilarity; }
+    public double getMaxLinkSimilarity() { return maxLinkSimilarity; }
+
+    public static class Member {
+        private final Long assignmentId;
+        private final String studentId;
+
+        public Member(Long assignmentId, String studentId) {
+            this.assignmentId = assignmentId;
+            this.studentId = studentId;
+        }
+
+        public Long getAssignmentId() { return assignmentId; }
+        public String getStudentId() { return studentId; }
+    }
+}
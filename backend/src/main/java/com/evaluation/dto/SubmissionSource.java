@@ -0,0 +1,30 @@
+package com.evaluation.dto;
+
+// Minimal view of a submission for bulk grading; avoids loading entities and their associations
+public class SubmissionSource {
+    private final Long assignmentId;
+    private final String title;
+    private final String codeContent;
+    private final String assignmentType;
+    private final String sourceHash;
+    private final String studentId;
+
+    // codeContent is only set for rows stored inline; others are read from the blob store by sourceHash
+    public SubmissionSource(Long assignmentId, String title, String codeContent, String assignmentType, String sourceHash,
+                            String studentId) {
+        this.assignmentId = assignmentId;
+        this.title = title;
+        this.codeContent = codeContent;
+        this.assignmentType = assignmentType;
+        this.sourceHash = sourceHash;
+        this.studentId = studentId;
+    }
+
+    // Getters
+    public Long getAssignmentId() { return assignmentId; }
+    public String getTitle() { return title; }
+    public String getCodeContent() { return codeContent; }
+    public String getAssignmentType() { return assignmentType; }
+    public String getSourceHash() { return sourceHash; }
+    public String getStudentId() { return studentId; }
+}
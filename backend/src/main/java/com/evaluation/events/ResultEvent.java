@@ -0,0 +1,35 @@
+package com.evaluation.events;
+
+import com.evaluation.model.EvaluationResult;
+import com.evaluation.model.EvaluationStatus;
+
+// A result row was written: queued, picked up by a grader, or graded
+public class ResultEvent {
+
+    private final Long assignmentId;
+    private final String studentId;
+    private final String assignmentType;
+    private final EvaluationResult result;
+
+    public ResultEvent(Long assignmentId, String studentId, String assignmentType, EvaluationResult result) {
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.assignmentType = assignmentType;
+        this.result = result;
+    }
+
+    public boolean isFinal() {
+        return isFinal(result.getStatus());
+    }
+
+    public static boolean isFinal(EvaluationStatus status) {
+        return status == EvaluationStatus.DONE || status == EvaluationStatus.FAILED;
+    }
+
+    // Getters
+    public Long getAssignmentId() { return assignmentId; }
+    public String getStudentId() { return studentId; }
+    public String getAssignmentType() { return assignmentType; }
+    public EvaluationResult getResult() { return result; }
+    public EvaluationStatus getStatus() { return result.getStatus(); }
+}
@@ -0,0 +1,35 @@
+package com.evaluation.events;
+
+import com.evaluation.service.LoggingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-process fan-out of result writes from the grading path. Listeners run on the publishing
+// thread, after the row is saved, and must hand anything slow off to their own threads.
+@Component
+public class ResultEventBus {
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final List<Consumer<ResultEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<ResultEvent> listener) {
+        listeners.add(listener);
+    }
+
+    public void publish(ResultEvent event) {
+        for (Consumer<ResultEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                // Grading already succeeded; a broken listener must not fail it
+                loggingService.logError("Result event listener failed", e.getMessage(),
+                    "AssignmentId: " + event.getAssignmentId());
+            }
+        }
+    }
+}
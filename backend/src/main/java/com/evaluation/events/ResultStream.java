@@ -0,0 +1,146 @@
+package com.evaluation.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// One open SSE connection. Pending events are kept per assignment, so a newer status replaces
+// one the client has not received yet, and at most maxBuffered assignments can be pending.
+// A client that falls further behind is disconnected; EventSource reconnects and starts again
+// from the current state.
+class ResultStream {
+
+    private final SseEmitter emitter;
+    private final Long assignmentId;
+    private final String studentId;
+    private final int maxBuffered;
+    private final LinkedHashMap<Long, Pending> buffer = new LinkedHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private boolean heartbeatDue;
+    private volatile boolean closed;
+
+    ResultStream(SseEmitter emitter, Long assignmentId, String studentId, int maxBuffered) {
+        this.emitter = emitter;
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.maxBuffered = maxBuffered;
+    }
+
+    // False when the buffer is full and the stream has to be closed
+    synchronized boolean offer(Long eventAssignmentId, String payload, boolean last) {
+        if (closed) {
+            return true;
+        }
+        buffer.remove(eventAssignmentId);
+        if (buffer.size() >= maxBuffered) {
+            return false;
+        }
+        // A submission stream ends with the first final result
+        buffer.put(eventAssignmentId, new Pending(payload, last && assignmentId != null));
+        return true;
+    }
+
+    synchronized void requestHeartbeat() {
+        heartbeatDue = true;
+    }
+
+    synchronized boolean hasPending() {
+        return !closed && (heartbeatDue || !buffer.isEmpty());
+    }
+
+    // Sends what is buffered on the calling thread and returns the number of events sent;
+    // only one thread drains a stream at a time
+    int drain() {
+        int sent = 0;
+        while (true) {
+            Pending next;
+            boolean heartbeat;
+            synchronized (this) {
+                if (closed) {
+                    return sent;
+                }
+                Iterator<Map.Entry<Long, Pending>> first = buffer.entrySet().iterator();
+                next = first.hasNext() ? first.next().getValue() : null;
+                if (next != null) {
+                    first.remove();
+                }
+                heartbeat = next == null && heartbeatDue;
+                heartbeatDue = false;
+            }
+            if (next == null && !heartbeat) {
+                return sent;
+            }
+            try {
+                if (next != null) {
+                    emitter.send(SseEmitter.event().name("result").data(next.payload, MediaType.APPLICATION_JSON));
+                    sent++;
+                    if (next.last) {
+                        close();
+                        return sent;
+                    }
+                } else {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (Exception e) {
+                // Client went away; the emitter callbacks unregister the stream
+                closeWithError(e);
+                return sent;
+            }
+        }
+    }
+
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+        }
+        try {
+            emitter.complete();
+        } catch (Exception ignored) {
+            // Already completed by the container
+        }
+    }
+
+    private void closeWithError(Exception error) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffer.clear();
+        }
+        try {
+            emitter.completeWithError(error);
+        } catch (Exception ignored) {
+            // Already completed by the container
+        }
+    }
+
+    boolean trySchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    void unschedule() {
+        scheduled.set(false);
+    }
+
+    Long getAssignmentId() { return assignmentId; }
+    String getStudentId() { return studentId; }
+    SseEmitter getEmitter() { return emitter; }
+
+    private static class Pending {
+        private final String payload;
+        private final boolean last;
+
+        Pending(String payload, boolean last) {
+            this.payload = payload;
+            this.last = last;
+        }
+    }
+}
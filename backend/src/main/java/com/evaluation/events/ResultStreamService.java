@@ -0,0 +1,319 @@
+package com.evaluation.events;
+
+import com.evaluation.concurrent.VirtualThreads;
+import com.evaluation.model.EvaluationResult;
+import com.evaluation.model.EvaluationStatus;
+import com.evaluation.repository.EvaluationResultRepository;
+import com.evaluation.service.LoggingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// Server-Sent Events for result updates, so a client holds one connection instead of polling.
+// Events come from the in-process bus when this node grades; submissions graded by another
+// worker node are caught by a sweep that reads the status of every watched, unfinished
+// assignment in one query.
+@Service
+public class ResultStreamService {
+
+    private static final int SWEEP_BATCH = 500;
+
+    @Autowired
+    private ResultEventBus resultEventBus;
+
+    @Autowired
+    private EvaluationResultRepository evaluationResultRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final int maxConnections;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private final long heartbeatMillis;
+    private final long sweepMillis;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<Long, Set<ResultStream>> byAssignment = new ConcurrentHashMap<>();
+    private final Map<String, Set<ResultStream>> byStudent = new ConcurrentHashMap<>();
+    // Unfinished assignments someone is watching, with the last status sent for them
+    private final Map<Long, Watched> watched = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong sweepUpdates = new AtomicLong();
+
+    public ResultStreamService(@Value("${evaluation.events.max-connections:10000}") int maxConnections,
+                               @Value("${evaluation.events.buffer-size:32}") int bufferSize,
+                               @Value("${evaluation.events.timeout-millis:1800000}") long timeoutMillis,
+                               @Value("${evaluation.events.heartbeat-millis:15000}") long heartbeatMillis,
+                               @Value("${evaluation.events.sweep-millis:2000}") long sweepMillis,
+                               @Value("${evaluation.events.sender-threads:4}") int senderThreads,
+                               @Value("${evaluation.threads.virtual:false}") boolean virtualThreads) {
+        this.maxConnections = maxConnections;
+        this.bufferSize = bufferSize;
+        this.timeoutMillis = timeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.sweepMillis = sweepMillis;
+        // A send blocks while the client's socket buffer is full, so slow clients only hold a sender thread
+        this.senders = VirtualThreads.enabled(virtualThreads)
+            ? VirtualThreads.newThreadPerTaskExecutor("sse-sender-")
+            : Executors.newFixedThreadPool(senderThreads, daemon("sse-sender-"));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("sse-scheduler-"));
+    }
+
+    @PostConstruct
+    public void start() {
+        resultEventBus.subscribe(this::onEvent);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        if (sweepMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::sweep, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Streams one submission until it is graded; empty when the connection limit is reached
+    public Optional<SseEmitter> openAssignmentStream(Long assignmentId, EvaluationResult current) {
+        Optional<ResultStream> opened = open(assignmentId, null);
+        opened.ifPresent(stream -> {
+            // The current state is buffered before registering, so any event after it replaces it. An
+            // event between the read and registering is missed here but found by the next sweep.
+            boolean done = ResultEvent.isFinal(current.getStatus());
+            stream.offer(assignmentId, serialize(assignmentId, null, current), done);
+            if (!done) {
+                watched.putIfAbsent(assignmentId, new Watched(null, current.getStatus()));
+                register(byAssignment, assignmentId, stream);
+            }
+            schedule(stream);
+        });
+        return opened.map(ResultStream::getEmitter);
+    }
+
+    // Streams every result update of a student's submissions made while the connection is open
+    public Optional<SseEmitter> openStudentStream(String studentId) {
+        Optional<ResultStream> opened = open(null, studentId);
+        opened.ifPresent(stream -> {
+            register(byStudent, studentId, stream);
+            // An immediate comment lets the client see the connection open
+            stream.requestHeartbeat();
+            schedule(stream);
+        });
+        return opened.map(ResultStream::getEmitter);
+    }
+
+    private Optional<ResultStream> open(Long assignmentId, String studentId) {
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            return Optional.empty();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        ResultStream stream = new ResultStream(emitter, assignmentId, studentId, bufferSize);
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable cleanup = () -> {
+            unregister(stream);
+            if (released.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+            }
+        };
+        emitter.onCompletion(cleanup);
+        emitter.onTimeout(cleanup);
+        emitter.onError(error -> cleanup.run());
+        return Optional.of(stream);
+    }
+
+    private void onEvent(ResultEvent event) {
+        Set<ResultStream> assignmentStreams = byAssignment.get(event.getAssignmentId());
+        Set<ResultStream> studentStreams = event.getStudentId() != null ? byStudent.get(event.getStudentId()) : null;
+        if (isEmpty(assignmentStreams) && isEmpty(studentStreams)) {
+            return;
+        }
+        if (event.isFinal()) {
+            watched.remove(event.getAssignmentId());
+        } else {
+            watched.put(event.getAssignmentId(), new Watched(event.getStudentId(), event.getStatus()));
+        }
+        // Serialized once on the grading thread: the entity keeps changing after this returns
+        String payload = serialize(event.getAssignmentId(), event.getStudentId(), event.getResult());
+        fanOut(assignmentStreams, event.getAssignmentId(), payload, event.isFinal());
+        fanOut(studentStreams, event.getAssignmentId(), payload, event.isFinal());
+    }
+
+    private void fanOut(Set<ResultStream> streams, Long assignmentId, String payload, boolean last) {
+        if (streams != null) {
+            for (ResultStream stream : streams) {
+                deliver(stream, assignmentId, payload, last);
+            }
+        }
+    }
+
+    private void deliver(ResultStream stream, Long assignmentId, String payload, boolean last) {
+        if (!stream.offer(assignmentId, payload, last)) {
+            overflows.incrementAndGet();
+            stream.close();
+            return;
+        }
+        schedule(stream);
+    }
+
+    private void schedule(ResultStream stream) {
+        if (!stream.trySchedule()) {
+            return;
+        }
+        try {
+            senders.execute(() -> {
+                try {
+                    eventsSent.addAndGet(stream.drain());
+                } finally {
+                    stream.unschedule();
+                    // Picks up events offered between the last poll of the buffer and unschedule()
+                    if (stream.hasPending()) {
+                        schedule(stream);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            stream.unschedule();
+            stream.close();
+        }
+    }
+
+    private void heartbeat() {
+        forEachStream(stream -> {
+            stream.requestHeartbeat();
+            schedule(stream);
+        });
+    }
+
+    // Catches status changes written by other nodes for assignments nobody here graded
+    private void sweep() {
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Long assignmentId : watched.keySet()) {
+                Watched entry = watched.get(assignmentId);
+                if (entry == null || (isEmpty(byAssignment.get(assignmentId))
+                        && (entry.studentId == null || isEmpty(byStudent.get(entry.studentId))))) {
+                    watched.remove(assignmentId);
+                } else {
+                    ids.add(assignmentId);
+                }
+            }
+            for (int from = 0; from < ids.size(); from += SWEEP_BATCH) {
+                List<Long> batch = ids.subList(from, Math.min(from + SWEEP_BATCH, ids.size()));
+                for (Object[] row : evaluationResultRepository.findByAssignmentIds(batch)) {
+                    Long assignmentId = (Long) row[0];
+                    EvaluationResult result = (EvaluationResult) row[1];
+                    Watched entry = watched.get(assignmentId);
+                    if (entry != null && entry.status != result.getStatus()) {
+                        sweepUpdates.incrementAndGet();
+                        onEvent(new ResultEvent(assignmentId, entry.studentId, null, result));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            loggingService.logError("Result stream sweep failed", e.getMessage(), "Watched: " + watched.size());
+        }
+    }
+
+    private String serialize(Long assignmentId, String studentId, EvaluationResult result) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("assignmentId", assignmentId);
+        if (studentId != null) {
+            payload.put("studentId", studentId);
+        }
+        payload.put("status", result.getStatus());
+        payload.put("result", result);
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to serialize result event: " + e.getMessage(), e);
+        }
+    }
+
+    private <K> void register(Map<K, Set<ResultStream>> index, K key, ResultStream stream) {
+        // compute() so a concurrent remove() cannot drop the set this stream is added to
+        index.compute(key, (k, streams) -> {
+            Set<ResultStream> target = streams != null ? streams : ConcurrentHashMap.newKeySet();
+            target.add(stream);
+            return target;
+        });
+    }
+
+    private void unregister(ResultStream stream) {
+        if (stream.getAssignmentId() != null) {
+            remove(byAssignment, stream.getAssignmentId(), stream);
+        } else {
+            remove(byStudent, stream.getStudentId(), stream);
+        }
+    }
+
+    private <K> void remove(Map<K, Set<ResultStream>> index, K key, ResultStream stream) {
+        index.computeIfPresent(key, (k, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private void forEachStream(Consumer<ResultStream> action) {
+        byAssignment.values().forEach(streams -> streams.forEach(action));
+        byStudent.values().forEach(streams -> streams.forEach(action));
+    }
+
+    private static boolean isEmpty(Set<ResultStream> streams) {
+        return streams == null || streams.isEmpty();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        forEachStream(ResultStream::close);
+        senders.shutdown();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    public int getConnections() { return connections.get(); }
+    public int getWatchedAssignments() { return watched.size(); }
+    public long getEventsSent() { return eventsSent.get(); }
+    public long getOverflows() { return overflows.get(); }
+    public long getSweepUpdates() { return sweepUpdates.get(); }
+
+    private static class Watched {
+        private final String studentId;
+        private final EvaluationStatus status;
+
+        Watched(String studentId, EvaluationStatus status) {
+            this.studentId = studentId;
+            this.status = status;
+        }
+    }
+}
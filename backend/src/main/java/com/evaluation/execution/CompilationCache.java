@@ -0,0 +1,211 @@
+package com.evaluation.execution;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Content-addressed cache of compilation results keyed by the SHA-256 of the normalized source.
+// Failed compilations are cached too, so resubmitting broken code returns its diagnostics instantly.
+@Component
+public class CompilationCache {
+    private static final int DISK_FORMAT_VERSION = 1;
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final long maxBytes;
+    private final Path diskDirectory;
+    private final LinkedHashMap<String, CompilationResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CompilationCache() {
+        this(64L * 1024 * 1024, false, "uploads");
+    }
+
+    @Autowired
+    public CompilationCache(@Value("${evaluation.compile-cache.max-bytes:67108864}") long maxBytes,
+                            @Value("${evaluation.compile-cache.disk-enabled:false}") boolean diskEnabled,
+                            @Value("${evaluation.upload-dir:uploads}") String uploadDir) {
+        this.maxBytes = maxBytes;
+        this.diskDirectory = diskEnabled ? Paths.get(uploadDir, "compile-cache") : null;
+    }
+
+    // Line endings and trailing whitespace never change what javac produces
+    public static String normalize(String source) {
+        String text = source.startsWith("\uFEFF") ? source.substring(1) : source;
+        StringBuilder normalized = new StringBuilder(text.length());
+        for (String line : text.split("\r\n|\r|\n", -1)) {
+            int end = line.length();
+            while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+                end--;
+            }
+            normalized.append(line, 0, end).append('\n');
+        }
+        int length = normalized.length();
+        while (length > 0 && normalized.charAt(length - 1) == '\n') {
+            length--;
+        }
+        normalized.setLength(length);
+        return normalized.toString();
+    }
+
+    public static String hash(String normalizedSource) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalizedSource.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public CompilationResult getOrCompile(String source, Function<String, CompilationResult> compiler) {
+        String normalized = normalize(source);
+        String key = hash(normalized);
+
+        CompilationResult cached = getFromMemory(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        cached = readFromDisk(key);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            putInMemory(key, cached);
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        CompilationResult compiled = compiler.apply(normalized);
+        putInMemory(key, compiled);
+        writeToDisk(key, compiled);
+        return compiled;
+    }
+
+    private synchronized CompilationResult getFromMemory(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void putInMemory(String key, CompilationResult result) {
+        long weight = weigh(result);
+        if (weight > maxBytes) {
+            return;
+        }
+        CompilationResult previous = entries.put(key, result);
+        if (previous != null) {
+            currentBytes -= weigh(previous);
+        }
+        currentBytes += weight;
+
+        Iterator<Map.Entry<String, CompilationResult>> eldest = entries.entrySet().iterator();
+        while (currentBytes > maxBytes && eldest.hasNext()) {
+            currentBytes -= weigh(eldest.next().getValue());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static long weigh(CompilationResult result) {
+        long weight = ENTRY_OVERHEAD_BYTES;
+        if (result.getDiagnostics() != null) {
+            weight += result.getDiagnostics().length() * 2L;
+        }
+        for (Map.Entry<String, byte[]> entry : result.getClasses().entrySet()) {
+            weight += entry.getKey().length() * 2L + entry.getValue().length;
+        }
+        return weight;
+    }
+
+    private Path diskPath(String key) {
+        return diskDirectory.resolve(key.substring(0, 2)).resolve(key + ".bin");
+    }
+
+    private CompilationResult readFromDisk(String key) {
+        if (diskDirectory == null) {
+            return null;
+        }
+        Path path = diskPath(key);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != DISK_FORMAT_VERSION) {
+                return null;
+            }
+            boolean success = in.readBoolean();
+            String mainClassName = in.readUTF();
+            byte[] diagnostics = new byte[in.readInt()];
+            in.readFully(diagnostics);
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            int classCount = in.readInt();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            String report = new String(diagnostics, StandardCharsets.UTF_8);
+            return success ? CompilationResult.success(mainClassName, classes, report) : CompilationResult.failure(report);
+        } catch (IOException e) {
+            // A corrupt entry is treated as a miss and rewritten
+            return null;
+        }
+    }
+
+    private void writeToDisk(String key, CompilationResult result) {
+        if (diskDirectory == null) {
+            return;
+        }
+        Path path = diskPath(key);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                byte[] diagnostics = result.getDiagnostics() == null ? new byte[0] : result.getDiagnostics().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(DISK_FORMAT_VERSION);
+                out.writeBoolean(result.isSuccess());
+                out.writeUTF(result.getMainClassName() == null ? "" : result.getMainClassName());
+                out.writeInt(diagnostics.length);
+                out.write(diagnostics);
+                out.writeInt(result.getClasses().size());
+                for (Map.Entry<String, byte[]> entry : result.getClasses().entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    out.write(entry.getValue());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The disk tier is best effort; the memory tier already holds the result
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    // Statistics
+    public long getHits() { return hits.get(); }
+    public long getDiskHits() { return diskHits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public synchronized int getSize() { return entries.size(); }
+    public synchronized long getSizeBytes() { return currentBytes; }
+    public long getMaxBytes() { return maxBytes; }
+}
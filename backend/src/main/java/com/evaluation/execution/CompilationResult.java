@@ -0,0 +1,32 @@
+package com.evaluation.execution;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class CompilationResult {
+    private final boolean success;
+    private final String mainClassName;
+    private final Map<String, byte[]> classes;
+    private final String diagnostics;
+
+    private CompilationResult(boolean success, String mainClassName, Map<String, byte[]> classes, String diagnostics) {
+        this.success = success;
+        this.mainClassName = mainClassName;
+        this.classes = classes;
+        this.diagnostics = diagnostics;
+    }
+
+    public static CompilationResult success(String mainClassName, Map<String, byte[]> classes, String diagnostics) {
+        return new CompilationResult(true, mainClassName, Collections.unmodifiableMap(classes), diagnostics);
+    }
+
+    public static CompilationResult failure(String diagnostics) {
+        return new CompilationResult(false, null, Collections.emptyMap(), diagnostics);
+    }
+
+    // Getters
+    public boolean isSuccess() { return success; }
+    public String getMainClassName() { return mainClassName; }
+    public Map<String, byte[]> getClasses() { return classes; }
+    public String getDiagnostics() { return diagnostics; }
+}
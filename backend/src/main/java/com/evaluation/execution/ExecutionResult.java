@@ -0,0 +1,49 @@
+package com.evaluation.execution;
+
+public class ExecutionResult {
+
+    public enum Status {
+        OK,
+        EXCEPTION,
+        CPU_LIMIT,
+        WALL_LIMIT,
+        MEMORY_LIMIT,
+        OUTPUT_LIMIT,
+        SECURITY_VIOLATION,
+        SANDBOX_ERROR
+    }
+
+    private final Status status;
+    private final String output;
+    private final String message;
+
+    public ExecutionResult(Status status, String output, String message) {
+        this.status = status;
+        this.output = output;
+        this.message = message;
+    }
+
+    public static ExecutionResult sandboxError(String message) {
+        return new ExecutionResult(Status.SANDBOX_ERROR, "", message);
+    }
+
+    // Getters
+    public Status getStatus() { return status; }
+    public String getOutput() { return output; }
+    public String getMessage() { return message; }
+
+    public boolean isSuccess() {
+        return status == Status.OK;
+    }
+
+    // Time limits depend on host load and sandbox errors on infrastructure; everything else
+    // is a property of the program and its input
+    public boolean isReproducible() {
+        return status != Status.CPU_LIMIT && status != Status.WALL_LIMIT && status != Status.SANDBOX_ERROR;
+    }
+
+    // Limit breaches leave the worker JVM in an unknown state, so it is never reused afterwards
+    public boolean isWorkerPoisoned() {
+        return status != Status.OK && status != Status.EXCEPTION && status != Status.SECURITY_VIOLATION;
+    }
+}
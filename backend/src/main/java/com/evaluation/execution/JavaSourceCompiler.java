@@ -0,0 +1,143 @@
+package com.evaluation.execution;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Compiles a single submitted source file in-process; class files never touch the disk
+public class JavaSourceCompiler {
+
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final Pattern PUBLIC_TYPE_PATTERN =
+        Pattern.compile("public\\s+(?:(?:final|abstract|strictfp)\\s+)*(?:class|interface|enum|record)\\s+(\\w+)");
+    private static final Pattern TYPE_PATTERN = Pattern.compile("\\b(?:class|enum|record)\\s+(\\w+)");
+    private static final List<String> OPTIONS = Arrays.asList("-proc:none", "-nowarn", "-encoding", "UTF-8");
+
+    private final JavaCompiler compiler;
+
+    public JavaSourceCompiler() {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+    }
+
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    public CompilationResult compile(String source) {
+        if (compiler == null) {
+            return CompilationResult.failure("Java compiler is not available in this runtime (a JDK is required)");
+        }
+
+        String simpleName = findTypeName(source);
+        String packageName = findPackage(source);
+        String mainClassName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+        MemoryFileManager fileManager = new MemoryFileManager(standardManager);
+
+        try {
+            JavaFileObject sourceFile = new SourceFile(simpleName, source);
+            Boolean compiled = compiler.getTask(null, fileManager, diagnostics, OPTIONS, null,
+                Collections.singletonList(sourceFile)).call();
+
+            String report = formatDiagnostics(diagnostics);
+            if (!Boolean.TRUE.equals(compiled)) {
+                return CompilationResult.failure(report.isEmpty() ? "Compilation failed" : report);
+            }
+            return CompilationResult.success(mainClassName, fileManager.getClasses(), report);
+        } finally {
+            try {
+                fileManager.close();
+            } catch (Exception ignored) {
+                // Nothing was opened on disk
+            }
+        }
+    }
+
+    private static String findTypeName(String source) {
+        Matcher publicType = PUBLIC_TYPE_PATTERN.matcher(source);
+        if (publicType.find()) {
+            return publicType.group(1);
+        }
+        Matcher anyType = TYPE_PATTERN.matcher(source);
+        return anyType.find() ? anyType.group(1) : "Main";
+    }
+
+    private static String findPackage(String source) {
+        Matcher matcher = PACKAGE_PATTERN.matcher(source);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+
+    private static String formatDiagnostics(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder report = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR && diagnostic.getKind() != Diagnostic.Kind.WARNING) {
+                continue;
+            }
+            report.append(String.format("Line %d: %s: %s\n",
+                diagnostic.getLineNumber(),
+                diagnostic.getKind() == Diagnostic.Kind.ERROR ? "error" : "warning",
+                diagnostic.getMessage(Locale.ROOT)));
+        }
+        return report.toString();
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String source;
+
+        SourceFile(String simpleName, String source) {
+            super(URI.create("string:///" + simpleName + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("mem:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+
+        byte[] getBytes() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ClassFile> outputs = new LinkedHashMap<>();
+
+        MemoryFileManager(StandardJavaFileManager delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) {
+            ClassFile classFile = new ClassFile(className);
+            outputs.put(className, classFile);
+            return classFile;
+        }
+
+        Map<String, byte[]> getClasses() {
+            Map<String, byte[]> classes = new LinkedHashMap<>();
+            outputs.forEach((name, file) -> classes.put(name, file.getBytes()));
+            return classes;
+        }
+    }
+}
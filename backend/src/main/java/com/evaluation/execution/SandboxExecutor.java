@@ -0,0 +1,169 @@
+package com.evaluation.execution;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.concurrent.*;
+
+// Compiles submissions in-process and runs them in pooled worker JVMs, one pool per sandbox profile
+@Component
+public class SandboxExecutor {
+    private final JavaSourceCompiler compiler;
+    private final CompilationCache compilationCache;
+    private final Map<SandboxProfile, WorkerPool> pools = new ConcurrentHashMap<>();
+    private final int maxWorkers;
+    private final int prewarmWorkers;
+    private final int maxRunsPerWorker;
+    private final List<String> launchPrefix;
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService spawner;
+    private volatile Path workerClasspath;
+    private volatile Path workingDirectory;
+
+    public SandboxExecutor() {
+        this(new CompilationCache(), 4, 2, 200);
+    }
+
+    public SandboxExecutor(CompilationCache compilationCache, int maxWorkers, int prewarmWorkers, int maxRunsPerWorker) {
+        this(compilationCache, maxWorkers, prewarmWorkers, maxRunsPerWorker, "");
+    }
+
+    // The launch prefix wraps the worker command, e.g. "setpriv --reuid=sandbox ..." to run
+    // workers as an unprivileged user, so the security manager is not the only barrier
+    @Autowired
+    public SandboxExecutor(CompilationCache compilationCache,
+                           @Value("${evaluation.sandbox.max-workers:4}") int maxWorkers,
+                           @Value("${evaluation.sandbox.prewarm-workers:2}") int prewarmWorkers,
+                           @Value("${evaluation.sandbox.max-runs-per-worker:200}") int maxRunsPerWorker,
+                           @Value("${evaluation.sandbox.launch-prefix:}") String launchPrefix) {
+        this.launchPrefix = launchPrefix == null || launchPrefix.isBlank() ? Collections.emptyList()
+            : Collections.unmodifiableList(Arrays.asList(launchPrefix.trim().split("\\s+")));
+        this.compiler = new JavaSourceCompiler();
+        this.compilationCache = compilationCache;
+        this.maxWorkers = maxWorkers;
+        this.prewarmWorkers = Math.min(prewarmWorkers, maxWorkers);
+        this.maxRunsPerWorker = maxRunsPerWorker;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemonFactory("sandbox-watchdog"));
+        this.spawner = Executors.newSingleThreadExecutor(daemonFactory("sandbox-spawner"));
+    }
+
+    // Identical sources (after normalization) are compiled once
+    public CompilationResult compile(String source) {
+        if (!compiler.isAvailable()) {
+            return compiler.compile(source);
+        }
+        return compilationCache.getOrCompile(source, compiler::compile);
+    }
+
+    public ExecutionResult execute(CompilationResult program, String input, SandboxProfile profile) throws InterruptedException {
+        if (!program.isSuccess()) {
+            return ExecutionResult.sandboxError("Program did not compile");
+        }
+        // Programs reading lines expect the last line of input to be terminated
+        String stdin = input == null || input.isEmpty() || input.endsWith("\n") ? input : input + "\n";
+        return pool(profile).execute(program, stdin == null ? "" : stdin);
+    }
+
+    public void prewarm(SandboxProfile profile) {
+        pool(profile).prewarm(prewarmWorkers);
+    }
+
+    public int getIdleWorkers(SandboxProfile profile) {
+        WorkerPool pool = pools.get(profile);
+        return pool != null ? pool.getIdleWorkers() : 0;
+    }
+
+    private WorkerPool pool(SandboxProfile profile) {
+        return pools.computeIfAbsent(profile, p -> new WorkerPool(p, workerClasspath(), workingDirectory(),
+            launchPrefix, maxWorkers, maxRunsPerWorker, watchdog, spawner));
+    }
+
+    // Worker JVMs get a private classpath holding only the worker classes, which also works
+    // when the application itself runs from a nested Spring Boot jar
+    private synchronized Path workerClasspath() {
+        if (workerClasspath == null) {
+            try {
+                Path root = Files.createTempDirectory("sandbox-worker");
+                copyClass(root, SandboxWorker.class);
+                for (Class<?> nested : SandboxWorker.class.getDeclaredClasses()) {
+                    copyClass(root, nested);
+                }
+                shareWithWorkers(root);
+                workerClasspath = root;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not prepare sandbox worker classpath", e);
+            }
+        }
+        return workerClasspath;
+    }
+
+    private synchronized Path workingDirectory() {
+        if (workingDirectory == null) {
+            try {
+                Path directory = Files.createTempDirectory("sandbox-run");
+                shareWithWorkers(directory);
+                workingDirectory = directory;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not create sandbox working directory", e);
+            }
+        }
+        return workingDirectory;
+    }
+
+    // Temp directories are private to the application user; a worker launched as another user
+    // needs to read the classpath and enter its working directory (but never write to either)
+    private static void shareWithWorkers(Path root) throws IOException {
+        if (Files.getFileAttributeView(root, PosixFileAttributeView.class) == null) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(root)) {
+            paths = walk.collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.setPosixFilePermissions(path, PosixFilePermissions.fromString(
+                Files.isDirectory(path) ? "rwxr-xr-x" : "rw-r--r--"));
+        }
+    }
+
+    private static void copyClass(Path root, Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        Path target = root.resolve(resource);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = SandboxExecutor.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing class resource " + resource);
+            }
+            Files.copy(in, target);
+        }
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(WorkerPool::close);
+        spawner.shutdownNow();
+        watchdog.shutdownNow();
+    }
+}
@@ -0,0 +1,48 @@
+package com.evaluation.execution;
+
+// Isolation profiles selectable through EvaluationEngine.sandboxConfig. Only RELAXED lets
+// submitted code read files outside the JDK.
+public enum SandboxProfile {
+    DEFAULT("default", 128, 5000, 8000, 1024 * 1024, true, 1),
+    STRICT("strict", 64, 2000, 4000, 64 * 1024, true, 1),
+    RELAXED("relaxed", 256, 10000, 15000, 4 * 1024 * 1024, false, 2);
+
+    private final String configName;
+    private final int maxHeapMb;
+    private final long cpuLimitMillis;
+    private final long wallLimitMillis;
+    private final int maxOutputBytes;
+    private final boolean restrictFileReads;
+    private final int processors;
+
+    SandboxProfile(String configName, int maxHeapMb, long cpuLimitMillis, long wallLimitMillis,
+                   int maxOutputBytes, boolean restrictFileReads, int processors) {
+        this.configName = configName;
+        this.maxHeapMb = maxHeapMb;
+        this.cpuLimitMillis = cpuLimitMillis;
+        this.wallLimitMillis = wallLimitMillis;
+        this.maxOutputBytes = maxOutputBytes;
+        this.restrictFileReads = restrictFileReads;
+        this.processors = processors;
+    }
+
+    public static SandboxProfile fromConfig(String sandboxConfig) {
+        if (sandboxConfig != null) {
+            for (SandboxProfile profile : values()) {
+                if (profile.configName.equalsIgnoreCase(sandboxConfig.trim())) {
+                    return profile;
+                }
+            }
+        }
+        return DEFAULT;
+    }
+
+    // Getters
+    public String getConfigName() { return configName; }
+    public int getMaxHeapMb() { return maxHeapMb; }
+    public long getCpuLimitMillis() { return cpuLimitMillis; }
+    public long getWallLimitMillis() { return wallLimitMillis; }
+    public int getMaxOutputBytes() { return maxOutputBytes; }
+    public boolean isRestrictFileReads() { return restrictFileReads; }
+    public int getProcessors() { return processors; }
+}
@@ -0,0 +1,461 @@
+package com.evaluation.execution;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ReflectPermission;
+import java.net.NetPermission;
+import java.net.SocketPermission;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.AccessController;
+import java.security.CodeSource;
+import java.security.Permission;
+import java.security.Permissions;
+import java.security.Policy;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.*;
+
+// Entry point of a worker JVM. It is launched from a private classpath that contains only this
+// class and its nested classes, so it must not reference anything else from the application.
+//
+// Protocol on stdin/stdout, one request at a time:
+//   request:  int classCount (negative = shutdown), classCount x (UTF name, int length, bytes),
+//             UTF mainClass, int inputLength, bytes, long cpuLimitMillis, int maxOutputBytes
+//   response: UTF status, int outputLength, bytes, UTF message, boolean retired
+public final class SandboxWorker {
+
+    static final String RESTRICT_READS_ARG = "restrict-reads";
+    static final String READY = "READY";
+
+    private static final ThreadGroup SANDBOX_GROUP = new ThreadGroup("sandbox");
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+
+    private SandboxWorker() {}
+
+    public static void main(String[] args) throws IOException {
+        boolean restrictFileReads = args.length > 0 && RESTRICT_READS_ARG.equals(args[0]);
+        DataInputStream requests = new DataInputStream(new BufferedInputStream(new FileInputStream(FileDescriptor.in)));
+        DataOutputStream responses = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+
+        // Nothing but protocol frames may reach the real stdout
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        warmUp();
+        Guard.install(restrictFileReads);
+
+        responses.writeUTF(READY);
+        responses.flush();
+
+        while (true) {
+            int classCount;
+            try {
+                classCount = requests.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            if (classCount < 0) {
+                return;
+            }
+
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                String name = requests.readUTF();
+                byte[] bytes = new byte[requests.readInt()];
+                requests.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            String mainClass = requests.readUTF();
+            byte[] input = new byte[requests.readInt()];
+            requests.readFully(input);
+            long cpuLimitMillis = requests.readLong();
+            int maxOutputBytes = requests.readInt();
+
+            Outcome outcome = execute(classes, mainClass, input, cpuLimitMillis, maxOutputBytes);
+
+            responses.writeUTF(outcome.status);
+            responses.writeInt(outcome.output.length);
+            responses.write(outcome.output);
+            responses.writeUTF(truncate(outcome.message));
+            responses.writeBoolean(outcome.retired);
+            responses.flush();
+
+            if (outcome.retired) {
+                // Runaway threads cannot be stopped safely; the parent replaces this JVM
+                Runtime.getRuntime().halt(0);
+            }
+        }
+    }
+
+    private static Outcome execute(Map<String, byte[]> classes, String mainClass, byte[] input,
+                                   long cpuLimitMillis, int maxOutputBytes) {
+        Method main;
+        try {
+            main = findMain(new MemoryClassLoader(classes), mainClass, classes.keySet());
+        } catch (Exception | LinkageError e) {
+            return new Outcome("EXCEPTION", new byte[0], "Could not load program: " + e, false);
+        }
+        if (main == null) {
+            return new Outcome("EXCEPTION", new byte[0], "No public static void main(String[]) method found", false);
+        }
+
+        CappedOutput output = new CappedOutput(maxOutputBytes);
+        PrintStream stdout = new PrintStream(output, true, StandardCharsets.UTF_8);
+        PrintStream stderr = new PrintStream(OutputStream.nullOutputStream());
+        InputStream originalIn = System.in;
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        System.setIn(new ByteArrayInputStream(input));
+        System.setOut(stdout);
+        System.setErr(stderr);
+
+        Runner runner = new Runner(main);
+        Thread thread = new Thread(SANDBOX_GROUP, runner, "sandbox-main");
+        String limitStatus = null;
+
+        try {
+            thread.start();
+            long cpuLimitNanos = cpuLimitMillis * 1_000_000L;
+            while (thread.isAlive()) {
+                thread.join(10);
+                if (sandboxCpuTime() > cpuLimitNanos) {
+                    limitStatus = "CPU_LIMIT";
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            limitStatus = "SANDBOX_ERROR";
+        }
+
+        stdout.flush();
+        boolean lingering = SANDBOX_GROUP.activeCount() > 0;
+        System.setIn(originalIn);
+        System.setOut(originalOut);
+        System.setErr(originalErr);
+
+        byte[] produced = output.toByteArray();
+        if (limitStatus != null) {
+            return new Outcome(limitStatus, produced, "CPU time limit of " + cpuLimitMillis + " ms exceeded", true);
+        }
+
+        // Checked first: code may catch the limit error or exit after it and still end "normally"
+        Throwable failure = runner.failure;
+        if (failure instanceof OutputLimitExceeded || output.exceeded) {
+            return new Outcome("OUTPUT_LIMIT", produced, "Output limit of " + maxOutputBytes + " bytes exceeded", true);
+        }
+        if (failure == null || failure instanceof ExitRequested) {
+            return new Outcome("OK", produced, "", lingering);
+        }
+        if (failure instanceof OutOfMemoryError) {
+            return new Outcome("MEMORY_LIMIT", produced, "Memory limit exceeded", true);
+        }
+        if (failure instanceof SecurityException) {
+            return new Outcome("SECURITY_VIOLATION", produced, "Operation not permitted: " + failure.getMessage(), lingering);
+        }
+        return new Outcome("EXCEPTION", produced, failure.toString(), lingering);
+    }
+
+    private static Method findMain(ClassLoader loader, String preferred, Collection<String> classNames) throws ClassNotFoundException {
+        List<String> candidates = new ArrayList<>();
+        candidates.add(preferred);
+        candidates.addAll(classNames);
+
+        for (String name : candidates) {
+            if (!classNames.contains(name)) {
+                continue;
+            }
+            Class<?> type = Class.forName(name, false, loader);
+            try {
+                Method method = type.getDeclaredMethod("main", String[].class);
+                if (Modifier.isStatic(method.getModifiers())) {
+                    method.setAccessible(true);
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // Try the next class
+            }
+        }
+        return null;
+    }
+
+    private static long sandboxCpuTime() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Thread[] active = new Thread[SANDBOX_GROUP.activeCount() + 8];
+        int count = SANDBOX_GROUP.enumerate(active, true);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            long cpu = threads.getThreadCpuTime(active[i].getId());
+            if (cpu > 0) {
+                total += cpu;
+            }
+        }
+        return total;
+    }
+
+    // Load the classes every run needs so the first real submission does not pay for them
+    private static void warmUp() {
+        Scanner scanner = new Scanner(new ByteArrayInputStream("1 2\n".getBytes(StandardCharsets.UTF_8)));
+        int sum = scanner.nextInt() + scanner.nextInt();
+        PrintStream sink = new PrintStream(new CappedOutput(1024), true, StandardCharsets.UTF_8);
+        sink.println(String.format("%d %s", sum, new StringBuilder("warm").reverse()));
+        ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+        new BufferedReader(new InputStreamReader(new ByteArrayInputStream(new byte[0]), StandardCharsets.UTF_8));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message;
+    }
+
+    private static final class Outcome {
+        final String status;
+        final byte[] output;
+        final String message;
+        final boolean retired;
+
+        Outcome(String status, byte[] output, String message, boolean retired) {
+            this.status = status;
+            this.output = output;
+            this.message = message;
+            this.retired = retired;
+        }
+    }
+
+    private static final class Runner implements Runnable {
+        private final Method main;
+        volatile Throwable failure;
+
+        Runner(Method main) {
+            this.main = main;
+        }
+
+        @Override
+        public void run() {
+            try {
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                failure = e.getCause();
+            } catch (Throwable t) {
+                failure = t;
+            }
+        }
+    }
+
+    // Submitted classes see the JDK but never the worker or application classes. They are defined
+    // without permissions, so a permission check that reaches their frames on the stack fails.
+    private static final class MemoryClassLoader extends ClassLoader {
+        private static final ProtectionDomain NO_PERMISSIONS =
+            new ProtectionDomain(new CodeSource(null, (Certificate[]) null), new Permissions());
+
+        private final Map<String, byte[]> classes;
+
+        MemoryClassLoader(Map<String, byte[]> classes) {
+            super(ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length, NO_PERMISSIONS);
+        }
+    }
+
+    private static final class CappedOutput extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final int limit;
+        volatile boolean exceeded;
+
+        CappedOutput(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            int room = limit - buffer.size();
+            if (length > room) {
+                buffer.write(bytes, offset, Math.max(room, 0));
+                exceeded = true;
+                // An Error escapes PrintStream, which swallows IOExceptions
+                throw new OutputLimitExceeded();
+            }
+            buffer.write(bytes, offset, length);
+        }
+
+        synchronized byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class OutputLimitExceeded extends Error {
+        OutputLimitExceeded() {
+            super("Output limit exceeded", null, false, false);
+        }
+    }
+
+    private static final class ExitRequested extends SecurityException {
+        ExitRequested() {
+            super("System.exit");
+        }
+    }
+
+    // A member class, not an anonymous one: the worker classpath only holds SandboxWorker's member classes
+    @SuppressWarnings("removal")
+    private static final class WorkerPolicy extends Policy {
+        private final ProtectionDomain workerDomain;
+        private final Policy defaultPolicy;
+
+        WorkerPolicy(ProtectionDomain workerDomain, Policy defaultPolicy) {
+            this.workerDomain = workerDomain;
+            this.defaultPolicy = defaultPolicy;
+        }
+
+        @Override
+        public boolean implies(ProtectionDomain domain, Permission permission) {
+            return domain == workerDomain || defaultPolicy.implies(domain, permission);
+        }
+    }
+
+    // Applies to threads in the sandbox group and to any thread running submitted code, e.g. a task
+    // handed to the common ForkJoinPool. It keeps no state that could be switched off: which checks
+    // apply is decided from the calling thread and stack on every call.
+    @SuppressWarnings("removal")
+    private static final class Guard extends SecurityManager {
+        // Reflection and class loader permissions would let submitted code reach into this guard
+        // or the JDK internals. The JDK itself uses some of them inside doPrivileged blocks (e.g.
+        // when bootstrapping lambdas), so these are checked against the stack, where submitted
+        // classes have no permissions and doPrivileged frames end the walk. File descriptor
+        // access would let submitted code write frames onto the worker's protocol stream.
+        private static final Set<String> STACK_CHECKED_RUNTIME = Set.of(
+            "accessDeclaredMembers", "createClassLoader", "setContextClassLoader", "getProtectionDomain",
+            "defineClass", "accessSystemModules", "enableContextClassLoaderOverride",
+            "writeFileDescriptor", "readFileDescriptor");
+
+        private final boolean restrictFileReads;
+        private final Path javaHome;
+        private final Module workerModule = SandboxWorker.class.getModule();
+
+        private Guard(boolean restrictFileReads) {
+            this.restrictFileReads = restrictFileReads;
+            this.javaHome = Paths.get(System.getProperty("java.home")).toAbsolutePath().normalize();
+        }
+
+        static void install(boolean restrictFileReads) {
+            try {
+                // The guard and runner frames sit on the stack of every stack check, so the worker's
+                // own classes need every permission; all other domains keep the default policy
+                Policy.setPolicy(new WorkerPolicy(SandboxWorker.class.getProtectionDomain(), Policy.getPolicy()));
+                System.setSecurityManager(new Guard(restrictFileReads));
+            } catch (UnsupportedOperationException | SecurityException e) {
+                // Newer JDKs have no security manager; process limits still apply
+            }
+        }
+
+        @Override
+        public void checkPermission(Permission permission) {
+            if (sandboxed()) {
+                enforce(permission);
+            }
+        }
+
+        @Override
+        public void checkPermission(Permission permission, Object context) {
+            checkPermission(permission);
+        }
+
+        // Submitted code may only touch threads and groups inside the sandbox group, so it cannot
+        // reach a parent group and start threads there; the JDK may, from doPrivileged blocks
+        @Override
+        public void checkAccess(Thread thread) {
+            super.checkAccess(thread);
+            if (sandboxed() && !inSandbox(thread.getThreadGroup())) {
+                AccessController.checkPermission(new RuntimePermission("modifyThread"));
+            }
+        }
+
+        @Override
+        public void checkAccess(ThreadGroup group) {
+            super.checkAccess(group);
+            if (sandboxed() && !inSandbox(group)) {
+                AccessController.checkPermission(new RuntimePermission("modifyThreadGroup"));
+            }
+        }
+
+        private boolean sandboxed() {
+            return inSandbox(Thread.currentThread().getThreadGroup()) || submittedCodeOnStack();
+        }
+
+        private static boolean inSandbox(ThreadGroup group) {
+            return group != null && SANDBOX_GROUP.parentOf(group);
+        }
+
+        // Submitted classes, including the classes generated for their lambdas, live in the unnamed
+        // module of their loader; JDK classes are in named modules and the worker in its own
+        private boolean submittedCodeOnStack() {
+            for (Class<?> type : getClassContext()) {
+                Module module = type.getModule();
+                if (!module.isNamed() && module != workerModule) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Compared after normalization, so "<java.home>/../.." does not pass as a JDK file
+        private boolean inJavaHome(String name) {
+            try {
+                return Paths.get(name).toAbsolutePath().normalize().startsWith(javaHome);
+            } catch (InvalidPathException e) {
+                return false;
+            }
+        }
+
+        private void enforce(Permission permission) {
+            String name = permission.getName();
+            if (permission instanceof RuntimePermission) {
+                if (name.startsWith("exitVM")) {
+                    throw new ExitRequested();
+                }
+                if (name.equals("setSecurityManager") || name.equals("createSecurityManager")
+                        || name.equals("setIO") || name.startsWith("loadLibrary")) {
+                    throw new SecurityException(name);
+                }
+                if (STACK_CHECKED_RUNTIME.contains(name) || name.startsWith("accessClassInPackage.")
+                        || name.startsWith("defineClassInPackage.")) {
+                    AccessController.checkPermission(permission);
+                }
+            } else if (permission instanceof ReflectPermission) {
+                // suppressAccessChecks, newProxyInPackage.*
+                AccessController.checkPermission(permission);
+            } else if (permission instanceof FilePermission) {
+                String actions = permission.getActions();
+                if (actions.contains("write") || actions.contains("delete") || actions.contains("execute")) {
+                    throw new SecurityException("file " + actions + " " + name);
+                }
+                // Reads outside the JDK are left to privileged JDK code, e.g. seeding SecureRandom
+                if (restrictFileReads && !inJavaHome(name)) {
+                    AccessController.checkPermission(permission);
+                }
+            } else if (permission instanceof SocketPermission || permission instanceof NetPermission) {
+                throw new SecurityException("network access");
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.evaluation.execution;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Pre-warmed worker JVMs for one sandbox profile. Workers are reused across submissions and
+// replaced after maxRunsPerWorker runs or as soon as a run leaves them in an unknown state.
+class WorkerPool {
+    private final SandboxProfile profile;
+    private final Path workerClasspath;
+    private final Path workingDirectory;
+    private final List<String> launchPrefix;
+    private final int maxWorkers;
+    private final int maxRunsPerWorker;
+    private final Semaphore slots;
+    private final BlockingQueue<WorkerProcess> idle = new LinkedBlockingQueue<>();
+    private final ScheduledExecutorService watchdog;
+    private final ExecutorService spawner;
+    private volatile boolean closed;
+
+    WorkerPool(SandboxProfile profile, Path workerClasspath, Path workingDirectory, List<String> launchPrefix,
+               int maxWorkers, int maxRunsPerWorker, ScheduledExecutorService watchdog, ExecutorService spawner) {
+        this.profile = profile;
+        this.workerClasspath = workerClasspath;
+        this.workingDirectory = workingDirectory;
+        this.launchPrefix = launchPrefix;
+        this.maxWorkers = maxWorkers;
+        this.maxRunsPerWorker = maxRunsPerWorker;
+        this.slots = new Semaphore(maxWorkers);
+        this.watchdog = watchdog;
+        this.spawner = spawner;
+    }
+
+    void prewarm(int count) {
+        for (int i = 0; i < count; i++) {
+            replenish();
+        }
+    }
+
+    ExecutionResult execute(CompilationResult program, String input) throws InterruptedException {
+        slots.acquire();
+        WorkerProcess worker = null;
+        try {
+            worker = idle.poll();
+            if (worker == null || !worker.isReusable(maxRunsPerWorker)) {
+                if (worker != null) {
+                    worker.destroy();
+                }
+                worker = WorkerProcess.start(processBuilder());
+            }
+
+            ExecutionResult result = worker.execute(program, input, profile, watchdog);
+            if (worker.isReusable(maxRunsPerWorker) && !result.isWorkerPoisoned() && !closed) {
+                idle.offer(worker);
+            } else {
+                worker.destroy();
+                replenish();
+            }
+            return result;
+
+        } catch (IOException e) {
+            if (worker != null) {
+                worker.destroy();
+            }
+            replenish();
+            return ExecutionResult.sandboxError("Worker failure: " + e.getMessage());
+        } finally {
+            slots.release();
+        }
+    }
+
+    // Start a replacement in the background so the next run finds a warm JVM
+    private void replenish() {
+        if (closed) {
+            return;
+        }
+        spawner.execute(() -> {
+            try {
+                WorkerProcess worker = WorkerProcess.start(processBuilder());
+                if (closed || idle.size() >= maxWorkers) {
+                    worker.destroy();
+                } else {
+                    idle.offer(worker);
+                }
+            } catch (IOException ignored) {
+                // Workers are started on demand when pre-warming fails
+            }
+        });
+    }
+
+    private ProcessBuilder processBuilder() {
+        List<String> command = new ArrayList<>(launchPrefix);
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.add("-Xmx" + profile.getMaxHeapMb() + "m");
+        command.add("-Xss1m");
+        command.add("-XX:MaxMetaspaceSize=64m");
+        command.add("-XX:MaxDirectMemorySize=16m");
+        command.add("-XX:+UseSerialGC");
+        command.add("-XX:TieredStopAtLevel=1");
+        command.add("-XX:ActiveProcessorCount=" + profile.getProcessors());
+        command.add("-Xshare:auto");
+        if (Runtime.version().feature() >= 12) {
+            command.add("-Djava.security.manager=allow");
+        }
+        command.add("-cp");
+        command.add(workerClasspath.toString());
+        command.add(SandboxWorker.class.getName());
+        if (profile.isRestrictFileReads()) {
+            command.add(SandboxWorker.RESTRICT_READS_ARG);
+        }
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(workingDirectory.toFile());
+        builder.environment().clear();
+        builder.redirectError(ProcessBuilder.Redirect.DISCARD);
+        return builder;
+    }
+
+    int getIdleWorkers() { return idle.size(); }
+
+    void close() {
+        closed = true;
+        WorkerProcess worker;
+        while ((worker = idle.poll()) != null) {
+            worker.destroy();
+        }
+    }
+}
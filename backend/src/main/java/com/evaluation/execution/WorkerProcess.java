@@ -0,0 +1,95 @@
+package com.evaluation.execution;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Parent-side handle of one worker JVM; used by a single thread at a time
+class WorkerProcess {
+    private final Process process;
+    private final DataOutputStream toWorker;
+    private final DataInputStream fromWorker;
+    private int runs;
+    private boolean retired;
+
+    private WorkerProcess(Process process) {
+        this.process = process;
+        this.toWorker = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        this.fromWorker = new DataInputStream(new BufferedInputStream(process.getInputStream()));
+    }
+
+    static WorkerProcess start(ProcessBuilder builder) throws IOException {
+        WorkerProcess worker = new WorkerProcess(builder.start());
+        try {
+            String handshake = worker.fromWorker.readUTF();
+            if (!SandboxWorker.READY.equals(handshake)) {
+                throw new IOException("Unexpected worker handshake: " + handshake);
+            }
+        } catch (IOException e) {
+            worker.destroy();
+            throw e;
+        }
+        return worker;
+    }
+
+    ExecutionResult execute(CompilationResult program, String input, SandboxProfile profile,
+                            ScheduledExecutorService watchdog) throws IOException {
+        runs++;
+        // The wall clock limit is enforced from outside: a stuck worker is simply killed
+        ScheduledFuture<?> kill = watchdog.schedule(process::destroyForcibly, profile.getWallLimitMillis(), TimeUnit.MILLISECONDS);
+        try {
+            writeRequest(program, input, profile);
+
+            ExecutionResult.Status status = ExecutionResult.Status.valueOf(fromWorker.readUTF());
+            byte[] output = new byte[fromWorker.readInt()];
+            fromWorker.readFully(output);
+            String message = fromWorker.readUTF();
+            retired = fromWorker.readBoolean() || retired;
+
+            return new ExecutionResult(status, new String(output, StandardCharsets.UTF_8), message);
+        } catch (IOException e) {
+            retired = true;
+            if (kill.isDone()) {
+                return new ExecutionResult(ExecutionResult.Status.WALL_LIMIT, "",
+                    "Time limit of " + profile.getWallLimitMillis() + " ms exceeded");
+            }
+            throw e;
+        } finally {
+            kill.cancel(false);
+        }
+    }
+
+    private void writeRequest(CompilationResult program, String input, SandboxProfile profile) throws IOException {
+        Map<String, byte[]> classes = program.getClasses();
+        toWorker.writeInt(classes.size());
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            toWorker.writeUTF(entry.getKey());
+            toWorker.writeInt(entry.getValue().length);
+            toWorker.write(entry.getValue());
+        }
+        toWorker.writeUTF(program.getMainClassName());
+        byte[] stdin = input.getBytes(StandardCharsets.UTF_8);
+        toWorker.writeInt(stdin.length);
+        toWorker.write(stdin);
+        toWorker.writeLong(profile.getCpuLimitMillis());
+        toWorker.writeInt(profile.getMaxOutputBytes());
+        toWorker.flush();
+    }
+
+    boolean isReusable(int maxRuns) {
+        return !retired && runs < maxRuns && process.isAlive();
+    }
+
+    void destroy() {
+        try {
+            toWorker.writeInt(-1);
+            toWorker.flush();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+        process.destroyForcibly();
+    }
+}
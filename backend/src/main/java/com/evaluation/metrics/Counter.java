@@ -0,0 +1,20 @@
+package com.evaluation.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class Counter {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {}
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void increment(long amount) {
+        value.add(amount);
+    }
+
+    public long getCount() { return value.sum(); }
+}
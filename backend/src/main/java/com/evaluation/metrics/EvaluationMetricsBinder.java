@@ -0,0 +1,144 @@
+package com.evaluation.metrics;
+
+import com.evaluation.cache.BoundedTtlCache;
+import com.evaluation.cache.BoundedTtlCacheManager;
+import com.evaluation.events.ResultStreamService;
+import com.evaluation.execution.CompilationCache;
+import com.evaluation.execution.SandboxExecutor;
+import com.evaluation.execution.SandboxProfile;
+import com.evaluation.model.EvaluationEngine;
+import com.evaluation.model.EvaluationResultCache;
+import com.evaluation.service.GradingJobWorker;
+import com.evaluation.service.GradingQueue;
+import com.evaluation.service.LoggingService;
+import com.evaluation.service.StudentService;
+import com.evaluation.service.SubmissionDeduplicator;
+import com.evaluation.storage.SourceBlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PostConstruct;
+
+// Exposes the state components already track (queue depths, pool utilization, cache
+// statistics, log shipping) as gauges and counters sampled at scrape time
+@Component
+public class EvaluationMetricsBinder {
+
+    @Autowired
+    private MetricsRegistry metrics;
+
+    @Autowired
+    private GradingQueue gradingQueue;
+
+    @Autowired
+    private EvaluationEngine evaluationEngine;
+
+    @Autowired
+    private SandboxExecutor sandboxExecutor;
+
+    @Autowired
+    private CompilationCache compilationCache;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+
+    @Autowired
+    private BoundedTtlCacheManager cacheManager;
+
+    @Autowired
+    private SubmissionDeduplicator submissionDeduplicator;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private GradingJobWorker gradingJobWorker;
+
+    @Autowired
+    private ResultStreamService resultStreamService;
+
+    @Value("${evaluation.sandbox.profile:default}")
+    private String sandboxProfile;
+
+    @PostConstruct
+    public void bind() {
+        metrics.gauge("grading.queue.depth", gradingQueue::getQueueDepth);
+        metrics.gauge("grading.queue.available", gradingQueue::getAvailableCapacity);
+        metrics.gauge("grading.graders.active", gradingQueue::getActiveGraders);
+        metrics.gauge("grading.graders.max", gradingQueue::getPoolSize);
+        metrics.gauge("grading.graders.utilization",
+            () -> ratio(gradingQueue.getActiveGraders(), gradingQueue.getPoolSize()));
+
+        metrics.gauge("grading.jobs.in_progress", gradingJobWorker::getInProgress);
+        metrics.functionCounter("grading.jobs", gradingJobWorker::getClaimed, "outcome", "claimed");
+        metrics.functionCounter("grading.jobs", gradingJobWorker::getCompleted, "outcome", "completed");
+        metrics.functionCounter("grading.jobs", gradingJobWorker::getRetried, "outcome", "retried");
+        metrics.functionCounter("grading.jobs", gradingJobWorker::getFailed, "outcome", "failed");
+
+        metrics.gauge("engine.test_runners.active", evaluationEngine::getActiveTestRunners);
+        metrics.gauge("engine.test_runners.max", evaluationEngine::getTestRunnerPoolSize);
+        metrics.gauge("engine.test_runners.queued", evaluationEngine::getQueuedTestCases);
+        metrics.gauge("engine.test_runners.utilization",
+            () -> ratio(evaluationEngine.getActiveTestRunners(), evaluationEngine.getTestRunnerPoolSize()));
+
+        SandboxProfile profile = SandboxProfile.fromConfig(sandboxProfile);
+        metrics.gauge("sandbox.workers.idle", () -> sandboxExecutor.getIdleWorkers(profile), "profile", profile.getConfigName());
+
+        metrics.functionCounter("compile_cache.requests", compilationCache::getHits, "result", "hit");
+        metrics.functionCounter("compile_cache.requests", compilationCache::getDiskHits, "result", "disk_hit");
+        metrics.functionCounter("compile_cache.requests", compilationCache::getMisses, "result", "miss");
+        metrics.functionCounter("compile_cache.evictions", compilationCache::getEvictions);
+        metrics.gauge("compile_cache.bytes", compilationCache::getSizeBytes);
+        metrics.gauge("compile_cache.hit_ratio", () -> ratio(
+            compilationCache.getHits() + compilationCache.getDiskHits(),
+            compilationCache.getHits() + compilationCache.getDiskHits() + compilationCache.getMisses()));
+
+        EvaluationResultCache resultCache = evaluationEngine.getResultCache();
+        metrics.functionCounter("result_cache.requests", resultCache::getHits, "result", "hit");
+        metrics.functionCounter("result_cache.requests", resultCache::getMisses, "result", "miss");
+        metrics.functionCounter("result_cache.evictions", resultCache::getEvictions);
+        metrics.gauge("result_cache.entries", resultCache::getSize);
+        metrics.gauge("result_cache.hit_ratio",
+            () -> ratio(resultCache.getHits(), resultCache.getHits() + resultCache.getMisses()));
+
+        metrics.functionCounter("blob_store.puts", sourceBlobStore::getWrites, "result", "written");
+        metrics.functionCounter("blob_store.puts", sourceBlobStore::getDeduplicated, "result", "deduplicated");
+        metrics.functionCounter("blob_store.reads", sourceBlobStore::getReads);
+        metrics.functionCounter("blob_store.bytes", sourceBlobStore::getBytesIn, "kind", "raw");
+        metrics.functionCounter("blob_store.bytes", sourceBlobStore::getBytesStored, "kind", "compressed");
+
+        for (BoundedTtlCache cache : cacheManager.getCaches()) {
+            String name = cache.getName();
+            metrics.functionCounter("lookup_cache.requests", cache::getHits, "cache", name, "result", "hit");
+            metrics.functionCounter("lookup_cache.requests", cache::getMisses, "cache", name, "result", "miss");
+            metrics.functionCounter("lookup_cache.removals", cache::getEvictions, "cache", name, "cause", "size");
+            metrics.functionCounter("lookup_cache.removals", cache::getExpirations, "cache", name, "cause", "expired");
+            metrics.gauge("lookup_cache.entries", cache::getSize, "cache", name);
+            metrics.gauge("lookup_cache.hit_ratio",
+                () -> ratio(cache.getHits(), cache.getHits() + cache.getMisses()), "cache", name);
+        }
+
+        metrics.functionCounter("submissions.dedup", submissionDeduplicator::getOwned, "result", "new");
+        metrics.functionCounter("submissions.dedup", submissionDeduplicator::getCoalesced, "result", "coalesced");
+        metrics.functionCounter("submissions.dedup", submissionDeduplicator::getReplayed, "result", "replayed");
+        metrics.gauge("submissions.dedup.keys", submissionDeduplicator::getSize);
+        metrics.gauge("students.known_ids", studentService::getKnownStudentCount);
+
+        metrics.gauge("result_streams.connections", resultStreamService::getConnections);
+        metrics.gauge("result_streams.watched", resultStreamService::getWatchedAssignments);
+        metrics.functionCounter("result_streams.events", resultStreamService::getEventsSent);
+        metrics.functionCounter("result_streams.overflows", resultStreamService::getOverflows);
+
+        metrics.gauge("logging.buffer.depth", loggingService::getBufferedCount);
+        metrics.functionCounter("logging.records", loggingService::getWrittenCount, "outcome", "written");
+        metrics.functionCounter("logging.records", loggingService::getSpilledCount, "outcome", "spilled");
+        metrics.functionCounter("logging.records", loggingService::getDroppedCount, "outcome", "dropped");
+    }
+
+    private static double ratio(double part, double whole) {
+        return whole > 0 ? part / whole : 0.0;
+    }
+}
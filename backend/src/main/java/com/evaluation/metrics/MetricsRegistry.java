@@ -0,0 +1,156 @@
+package com.evaluation.metrics;
+
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// In-process meter registry. Meters are identified by name plus tag pairs and rendered in the
+// Prometheus text exposition format; dots in names become underscores on export.
+@Component
+public class MetricsRegistry {
+
+    private enum Type {
+        COUNTER,
+        GAUGE,
+        HISTOGRAM
+    }
+
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    // Tags are given as alternating key/value pairs, e.g. timer("submission.stage", "stage", "grading")
+    public Timer timer(String name, String... tags) {
+        return (Timer) family(name, Type.HISTOGRAM).meters.computeIfAbsent(labels(tags), key -> new Timer());
+    }
+
+    public Counter counter(String name, String... tags) {
+        return (Counter) family(name, Type.COUNTER).meters.computeIfAbsent(labels(tags), key -> new Counter());
+    }
+
+    // Samples an existing value on every scrape
+    public void gauge(String name, Supplier<? extends Number> value, String... tags) {
+        family(name, Type.GAUGE).meters.put(labels(tags), value);
+    }
+
+    // Samples a monotonically increasing value that is already counted elsewhere
+    public void functionCounter(String name, Supplier<? extends Number> value, String... tags) {
+        family(name, Type.COUNTER).meters.put(labels(tags), value);
+    }
+
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Family family : new TreeMap<>(families).values()) {
+            String name = exportName(family.name);
+            switch (family.type) {
+                case HISTOGRAM:
+                    writeHistogram(out, name + "_seconds", family);
+                    break;
+                case COUNTER:
+                    out.append("# TYPE ").append(name).append("_total counter\n");
+                    for (Map.Entry<String, Object> meter : new TreeMap<>(family.meters).entrySet()) {
+                        double value = meter.getValue() instanceof Counter
+                            ? ((Counter) meter.getValue()).getCount()
+                            : sample(meter.getValue());
+                        writeSample(out, name + "_total", meter.getKey(), value);
+                    }
+                    break;
+                default:
+                    out.append("# TYPE ").append(name).append(" gauge\n");
+                    for (Map.Entry<String, Object> meter : new TreeMap<>(family.meters).entrySet()) {
+                        writeSample(out, name, meter.getKey(), sample(meter.getValue()));
+                    }
+            }
+        }
+        return out.toString();
+    }
+
+    private void writeHistogram(StringBuilder out, String name, Family family) {
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        for (Map.Entry<String, Object> meter : new TreeMap<>(family.meters).entrySet()) {
+            Timer timer = (Timer) meter.getValue();
+            String labels = meter.getKey();
+            String prefix = labels.isEmpty() ? "" : labels + ",";
+            long[] buckets = timer.cumulativeBuckets();
+            for (int i = 0; i < buckets.length; i++) {
+                writeSample(out, name + "_bucket", prefix + "le=\"" + Timer.BUCKET_SECONDS[i] + "\"", buckets[i]);
+            }
+            writeSample(out, name + "_bucket", prefix + "le=\"+Inf\"", timer.getCount());
+            writeSample(out, name + "_sum", labels, timer.getTotalSeconds());
+            writeSample(out, name + "_count", labels, timer.getCount());
+        }
+    }
+
+    private static void writeSample(StringBuilder out, String name, String labels, double value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            out.append((long) value);
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double sample(Object meter) {
+        try {
+            Number value = ((Supplier<? extends Number>) meter).get();
+            return value != null ? value.doubleValue() : Double.NaN;
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+
+    private Family family(String name, Type type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(key, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as " + family.type);
+        }
+        return family;
+    }
+
+    // Rendered once per meter, sorted by key so the same tags always map to the same meter
+    private static String labels(String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key/value pairs");
+        }
+        if (tags.length == 0) {
+            return "";
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            sorted.put(tags[i], tags[i + 1]);
+        }
+        List<String> pairs = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, String> tag : sorted.entrySet()) {
+            pairs.add(exportName(tag.getKey()) + "=\"" + escape(tag.getValue()) + "\"");
+        }
+        return String.join(",", pairs);
+    }
+
+    private static String exportName(String name) {
+        return name.replace('.', '_').replace('-', '_').toLowerCase(Locale.ROOT);
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static final class Family {
+        private final String name;
+        private final Type type;
+        private final Map<String, Object> meters = new ConcurrentHashMap<>();
+
+        private Family(String name, Type type) {
+            this.name = name;
+            this.type = type;
+        }
+    }
+}
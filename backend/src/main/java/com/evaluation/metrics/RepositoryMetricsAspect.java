@@ -0,0 +1,47 @@
+package com.evaluation.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+// Times every Spring Data repository call, tagged by repository interface and method
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    private final MetricsRegistry metrics;
+
+    public RepositoryMetricsAspect(MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            metrics.timer("repository.call",
+                "repository", repositoryName(joinPoint),
+                "method", joinPoint.getSignature().getName(),
+                "outcome", outcome).recordSince(start);
+        }
+    }
+
+    // Inherited methods such as save() are declared on CrudRepository, so the name is taken from the proxy
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis());
+        for (Class<?> repositoryInterface : interfaces) {
+            if (repositoryInterface.getName().startsWith("com.evaluation.")) {
+                return repositoryInterface.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
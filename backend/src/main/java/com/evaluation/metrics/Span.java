@@ -0,0 +1,37 @@
+package com.evaluation.metrics;
+
+public class Span implements AutoCloseable {
+
+    private final Trace trace;
+    private final String name;
+    private final long startNanos;
+    private volatile long durationNanos = -1;
+
+    Span(Trace trace, String name, long startNanos) {
+        this.trace = trace;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+        if (durationNanos >= 0) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        trace.spanClosed(this);
+    }
+
+    // Getters
+    public String getName() { return name; }
+
+    public double getOffsetMillis() {
+        return (startNanos - trace.getStartNanos()) / 1e6;
+    }
+
+    public double getDurationMillis() {
+        return durationNanos >= 0 ? durationNanos / 1e6 : -1;
+    }
+
+    long getDurationNanos() { return durationNanos; }
+}
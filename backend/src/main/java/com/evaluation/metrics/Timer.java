@@ -0,0 +1,63 @@
+package com.evaluation.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency histogram with fixed cumulative buckets, exported as a Prometheus histogram in seconds
+public class Timer {
+
+    static final double[] BUCKET_SECONDS = {
+        0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1.0, 2.5, 5.0, 10.0, 30.0, 60.0
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_SECONDS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    Timer() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long durationNanos) {
+        long nanos = Math.max(0, durationNanos);
+        double seconds = nanos / 1e9;
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            if (seconds <= BUCKET_SECONDS[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    public void record(long duration, TimeUnit unit) {
+        record(unit.toNanos(duration));
+    }
+
+    // Usage: long start = System.nanoTime(); ...; timer.recordSince(start);
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() { return count.sum(); }
+    public double getTotalSeconds() { return totalNanos.sum() / 1e9; }
+
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n > 0 ? totalNanos.sum() / 1e6 / n : 0.0;
+    }
+
+    // Cumulative counts per bucket, in the order of BUCKET_SECONDS
+    long[] cumulativeBuckets() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+}
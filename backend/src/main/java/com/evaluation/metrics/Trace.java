@@ -0,0 +1,88 @@
+package com.evaluation.metrics;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Spans of one submission, from acceptance to the stored result. A trace may be handed from
+// the request thread to a grader thread, so span bookkeeping is synchronized.
+public class Trace {
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String name;
+    private final Instant startedAt;
+    private final long startNanos;
+    private final Map<String, String> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final List<Span> spans = Collections.synchronizedList(new ArrayList<>());
+    private volatile long durationNanos = -1;
+    private volatile String outcome;
+
+    Trace(Tracer tracer, String name) {
+        this.tracer = tracer;
+        this.traceId = UUID.randomUUID().toString().replace("-", "").substring(0, 16);
+        this.name = name;
+        this.startedAt = Instant.now();
+        this.startNanos = System.nanoTime();
+    }
+
+    public Trace attribute(String key, Object value) {
+        attributes.put(key, String.valueOf(value));
+        return this;
+    }
+
+    // Use with try-with-resources; the span's duration is also recorded in the stage histogram
+    public Span span(String spanName) {
+        Span span = new Span(this, spanName, System.nanoTime());
+        spans.add(span);
+        return span;
+    }
+
+    public void finish(String outcome) {
+        if (durationNanos >= 0) {
+            return;
+        }
+        this.outcome = outcome;
+        this.durationNanos = System.nanoTime() - startNanos;
+        tracer.finished(this);
+    }
+
+    void spanClosed(Span span) {
+        tracer.spanClosed(span);
+    }
+
+    // Getters
+    public String getTraceId() { return traceId; }
+    public String getName() { return name; }
+    public Instant getStartedAt() { return startedAt; }
+    public String getOutcome() { return outcome; }
+    public Map<String, String> getAttributes() { return attributes; }
+
+    public double getDurationMillis() {
+        return durationNanos >= 0 ? durationNanos / 1e6 : -1;
+    }
+
+    public List<Span> getSpans() {
+        synchronized (spans) {
+            return new ArrayList<>(spans);
+        }
+    }
+
+    long getStartNanos() { return startNanos; }
+    long getDurationNanos() { return durationNanos; }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("TraceId: ").append(traceId).append(", Total: ")
+            .append(String.format("%.1f", getDurationMillis())).append("ms");
+        for (Span span : getSpans()) {
+            summary.append(", ").append(span.getName()).append(": ")
+                .append(String.format("%.1f", span.getDurationMillis())).append("ms");
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package com.evaluation.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-submission traces. Span durations feed the "submission.stage" histogram so stage latency
+// is visible in aggregate; the most recent traces are kept for inspection of individual runs.
+@Component
+public class Tracer {
+
+    private final MetricsRegistry metrics;
+    private final int maxRecentTraces;
+    private final long slowThresholdNanos;
+    private final Deque<Trace> recent = new ArrayDeque<>();
+    private final Deque<Trace> slow = new ArrayDeque<>();
+
+    @Autowired
+    public Tracer(MetricsRegistry metrics,
+                  @Value("${metrics.tracing.recent-traces:200}") int maxRecentTraces,
+                  @Value("${metrics.tracing.slow-threshold-millis:5000}") long slowThresholdMillis) {
+        this.metrics = metrics;
+        this.maxRecentTraces = maxRecentTraces;
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+    }
+
+    public Trace start(String name) {
+        return new Trace(this, name);
+    }
+
+    void spanClosed(Span span) {
+        metrics.timer("submission.stage", "stage", span.getName()).record(span.getDurationNanos());
+    }
+
+    void finished(Trace trace) {
+        long durationNanos = trace.getDurationNanos();
+        metrics.timer("submission.total", "trace", trace.getName(), "outcome", trace.getOutcome()).record(durationNanos);
+        synchronized (this) {
+            append(recent, trace);
+            if (durationNanos >= slowThresholdNanos) {
+                append(slow, trace);
+            }
+        }
+    }
+
+    private void append(Deque<Trace> traces, Trace trace) {
+        traces.addFirst(trace);
+        while (traces.size() > maxRecentTraces) {
+            traces.removeLast();
+        }
+    }
+
+    // Newest first
+    public synchronized List<Trace> getRecentTraces(int limit) {
+        return copy(recent, limit);
+    }
+
+    public synchronized List<Trace> getSlowTraces(int limit) {
+        return copy(slow, limit);
+    }
+
+    private static List<Trace> copy(Deque<Trace> traces, int limit) {
+        List<Trace> copy = new ArrayList<>(Math.min(limit, traces.size()));
+        for (Trace trace : traces) {
+            if (copy.size() >= limit) {
+                break;
+            }
+            copy.add(trace);
+        }
+        return copy;
+    }
+}
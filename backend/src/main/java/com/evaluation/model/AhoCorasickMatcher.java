@@ -0,0 +1,152 @@
+package com.evaluation.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+// Case-insensitive multi-pattern matcher. All patterns are found in a single pass over the
+// text, independent of how many patterns are registered, and characters are folded one at a
+// time so the text is never copied. Instances are immutable and safe to share between threads.
+public class AhoCorasickMatcher<T> {
+
+    private final char[][] transitionKeys;
+    private final int[][] transitionTargets;
+    private final int[] failure;
+    private final int[] dictionarySuffix;
+    private final List<List<T>> outputs;
+
+    private AhoCorasickMatcher(char[][] transitionKeys, int[][] transitionTargets, int[] failure,
+                               int[] dictionarySuffix, List<List<T>> outputs) {
+        this.transitionKeys = transitionKeys;
+        this.transitionTargets = transitionTargets;
+        this.failure = failure;
+        this.dictionarySuffix = dictionarySuffix;
+        this.outputs = outputs;
+    }
+
+    // Reports the value of every pattern occurrence; a value is reported once per occurrence
+    public void scan(CharSequence text, Consumer<T> onMatch) {
+        if (text == null) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = fold(text.charAt(i));
+            int next;
+            while ((next = transition(state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int match = outputs.get(state).isEmpty() ? dictionarySuffix[state] : state;
+                 match > 0; match = dictionarySuffix[match]) {
+                for (T value : outputs.get(match)) {
+                    onMatch.accept(value);
+                }
+            }
+        }
+    }
+
+    private int transition(int state, char c) {
+        int index = Arrays.binarySearch(transitionKeys[state], c);
+        return index >= 0 ? transitionTargets[state][index] : -1;
+    }
+
+    static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static class Builder<T> {
+        private final List<Map<Character, Integer>> trie = new ArrayList<>();
+        private final List<List<T>> outputs = new ArrayList<>();
+
+        private Builder() {
+            addState();
+        }
+
+        public Builder<T> add(String pattern, T value) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException("Pattern must not be empty");
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = fold(pattern.charAt(i));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = addState();
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            outputs.get(state).add(value);
+            return this;
+        }
+
+        private int addState() {
+            trie.add(new TreeMap<>());
+            outputs.add(new ArrayList<>(1));
+            return trie.size() - 1;
+        }
+
+        public AhoCorasickMatcher<T> build() {
+            int states = trie.size();
+            char[][] keys = new char[states][];
+            int[][] targets = new int[states][];
+            for (int state = 0; state < states; state++) {
+                Map<Character, Integer> edges = trie.get(state);
+                keys[state] = new char[edges.size()];
+                targets[state] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    keys[state][i] = edge.getKey();
+                    targets[state][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first, so failure links always point at already-resolved shallower states
+            int[] failure = new int[states];
+            int[] dictionarySuffix = new int[states];
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child : targets[0]) {
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int i = 0; i < keys[state].length; i++) {
+                    char c = keys[state][i];
+                    int child = targets[state][i];
+                    int fallback = failure[state];
+                    int next;
+                    while ((next = find(keys, targets, fallback, c)) < 0 && fallback != 0) {
+                        fallback = failure[fallback];
+                    }
+                    failure[child] = next >= 0 && next != child ? next : 0;
+                    int suffix = failure[child];
+                    dictionarySuffix[child] = outputs.get(suffix).isEmpty() ? dictionarySuffix[suffix] : suffix;
+                    queue.add(child);
+                }
+            }
+
+            List<List<T>> frozen = new ArrayList<>(states);
+            for (List<T> output : outputs) {
+                frozen.add(output.isEmpty() ? List.of() : List.copyOf(output));
+            }
+            return new AhoCorasickMatcher<>(keys, targets, failure, dictionarySuffix, frozen);
+        }
+
+        private static int find(char[][] keys, int[][] targets, int state, char c) {
+            int index = Arrays.binarySearch(keys[state], c);
+            return index >= 0 ? targets[state][index] : -1;
+        }
+    }
+}
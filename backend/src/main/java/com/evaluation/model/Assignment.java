@@ -1,12 +1,16 @@
 package com.evaluation.model;
 
+import com.evaluation.storage.SourceContentListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.function.Function;
 
 @Entity
 @Table(name = "assignments")
+@EntityListeners(SourceContentListener.class)
 public class Assignment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -24,9 +28,26 @@ public class Assignment {
     @Column(nullable = false)
     private LocalDateTime deadline;
 
-    @Column(columnDefinition = "TEXT")
+    // Inline source of rows stored before the blob store; new rows keep it null
+    @Column(name = "code_content", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String storedCodeContent;
+
+    // SHA-256 of the source in the blob store
+    @Column(length = 64)
+    private String sourceHash;
+
+    @Transient
     private String codeContent;
 
+    @Transient
+    @JsonIgnore
+    private transient Function<String, String> sourceLoader;
+
+    // Id of an AssignmentDefinition, resolved once at submission; null on rows stored before types were recorded
+    @Column(length = 64)
+    private String assignmentType;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "student_id")
     @JsonBackReference("student-assignments")
@@ -63,9 +84,23 @@ public class Assignment {
     public LocalDateTime getDeadline() { return deadline; }
     public void setDeadline(LocalDateTime deadline) { this.deadline = deadline; }
 
-    public String getCodeContent() { return codeContent; }
+    // Loaded from the blob store on first access
+    public String getCodeContent() {
+        if (codeContent == null) {
+            codeContent = sourceLoader != null && sourceHash != null ? sourceLoader.apply(sourceHash) : storedCodeContent;
+        }
+        return codeContent;
+    }
     public void setCodeContent(String codeContent) { this.codeContent = codeContent; }
 
+    public String getSourceHash() { return sourceHash; }
+    public void setSourceHash(String sourceHash) { this.sourceHash = sourceHash; }
+
+    public void attachSourceLoader(Function<String, String> sourceLoader) { this.sourceLoader = sourceLoader; }
+
+    public String getAssignmentType() { return assignmentType; }
+    public void setAssignmentType(String assignmentType) { this.assignmentType = assignmentType; }
+
     public Student getStudent() { return student; }
     public void setStudent(Student student) { this.student = student; }
 
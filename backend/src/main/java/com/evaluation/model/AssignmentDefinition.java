@@ -0,0 +1,30 @@
+package com.evaluation.model;
+
+import java.util.List;
+
+// Describes one assignment type. Keywords are only used when a submission does not name its
+// type explicitly; when several definitions match, the lowest priority value wins.
+public class AssignmentDefinition {
+
+    private final String typeId;
+    private final String displayName;
+    private final int priority;
+    private final List<String> titleKeywords;
+    private final List<String> codeKeywords;
+
+    public AssignmentDefinition(String typeId, String displayName, int priority,
+                                List<String> titleKeywords, List<String> codeKeywords) {
+        this.typeId = typeId;
+        this.displayName = displayName;
+        this.priority = priority;
+        this.titleKeywords = List.copyOf(titleKeywords);
+        this.codeKeywords = List.copyOf(codeKeywords);
+    }
+
+    // Getters
+    public String getTypeId() { return typeId; }
+    public String getDisplayName() { return displayName; }
+    public int getPriority() { return priority; }
+    public List<String> getTitleKeywords() { return titleKeywords; }
+    public List<String> getCodeKeywords() { return codeKeywords; }
+}
@@ -0,0 +1,58 @@
+package com.evaluation.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Persisted grade totals of one assignment type. Nodes add their deltas with plain SQL
+// increments (GradeStatsService), so the row is the sum over every node that graded.
+@Entity
+@Table(name = "assignment_stats")
+public class AssignmentStats {
+    @Id
+    @Column(name = "assignment_type", length = 64)
+    private String assignmentType;
+
+    @Column(nullable = false)
+    private long results;
+
+    @Column(nullable = false)
+    private long passed;
+
+    @Column(name = "score_sum", nullable = false)
+    private double scoreSum;
+
+    // Results without test outcomes: compile failures and submissions nothing could run against
+    @Column(name = "compile_failures", nullable = false)
+    private long compileFailures;
+
+    @Column(name = "grade_a", nullable = false)
+    private long gradeA;
+
+    @Column(name = "grade_b", nullable = false)
+    private long gradeB;
+
+    @Column(name = "grade_c", nullable = false)
+    private long gradeC;
+
+    @Column(name = "grade_d", nullable = false)
+    private long gradeD;
+
+    @Column(name = "grade_f", nullable = false)
+    private long gradeF;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Getters
+    public String getAssignmentType() { return assignmentType; }
+    public long getResults() { return results; }
+    public long getPassed() { return passed; }
+    public double getScoreSum() { return scoreSum; }
+    public long getCompileFailures() { return compileFailures; }
+    public long getGradeA() { return gradeA; }
+    public long getGradeB() { return gradeB; }
+    public long getGradeC() { return gradeC; }
+    public long getGradeD() { return gradeD; }
+    public long getGradeF() { return gradeF; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
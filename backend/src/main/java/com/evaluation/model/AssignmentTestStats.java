@@ -0,0 +1,32 @@
+package com.evaluation.model;
+
+import javax.persistence.*;
+
+// Persisted run and failure counts of one test case, by its position in the suite
+@Entity
+@Table(name = "assignment_test_stats", uniqueConstraints =
+    @UniqueConstraint(name = "uk_assignment_test_stats", columnNames = {"assignment_type", "position"}))
+public class AssignmentTestStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "assignment_type", nullable = false, length = 64)
+    private String assignmentType;
+
+    @Column(nullable = false)
+    private int position;
+
+    @Column(nullable = false)
+    private long runs;
+
+    @Column(nullable = false)
+    private long failures;
+
+    // Getters
+    public Long getId() { return id; }
+    public String getAssignmentType() { return assignmentType; }
+    public int getPosition() { return position; }
+    public long getRuns() { return runs; }
+    public long getFailures() { return failures; }
+}
@@ -0,0 +1,95 @@
+package com.evaluation.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Resolves the assignment type of a submission. An explicit type id is a map lookup; otherwise
+// title and source are each scanned once by a multi-pattern matcher built over every keyword
+// of every definition, so detection cost does not grow with the number of registered types.
+public class AssignmentTypeRegistry {
+
+    private final Map<String, AssignmentDefinition> definitions = new ConcurrentHashMap<>();
+    private final String defaultTypeId;
+    private volatile Detector detector = new Detector(List.of());
+
+    public AssignmentTypeRegistry(String defaultTypeId) {
+        this.defaultTypeId = defaultTypeId;
+    }
+
+    public synchronized void register(AssignmentDefinition definition) {
+        definitions.put(definition.getTypeId(), definition);
+        detector = new Detector(definitions.values());
+    }
+
+    public synchronized void registerAll(Collection<AssignmentDefinition> newDefinitions) {
+        for (AssignmentDefinition definition : newDefinitions) {
+            definitions.put(definition.getTypeId(), definition);
+        }
+        detector = new Detector(definitions.values());
+    }
+
+    public boolean contains(String typeId) {
+        return typeId != null && definitions.containsKey(typeId);
+    }
+
+    public AssignmentDefinition get(String typeId) {
+        return typeId != null ? definitions.get(typeId) : null;
+    }
+
+    public List<AssignmentDefinition> getDefinitions() {
+        List<AssignmentDefinition> sorted = new ArrayList<>(definitions.values());
+        sorted.sort((a, b) -> a.getPriority() != b.getPriority()
+            ? Integer.compare(a.getPriority(), b.getPriority())
+            : a.getTypeId().compareTo(b.getTypeId()));
+        return sorted;
+    }
+
+    public String getDefaultTypeId() { return defaultTypeId; }
+
+    public String resolve(Assignment assignment) {
+        String explicit = assignment.getAssignmentType();
+        if (contains(explicit)) {
+            return explicit;
+        }
+        AssignmentDefinition detected = detector.detect(assignment.getTitle(), assignment.getCodeContent());
+        return detected != null ? detected.getTypeId() : defaultTypeId;
+    }
+
+    private static final class Detector {
+        private final AhoCorasickMatcher<AssignmentDefinition> titleMatcher;
+        private final AhoCorasickMatcher<AssignmentDefinition> codeMatcher;
+
+        private Detector(Collection<AssignmentDefinition> definitions) {
+            AhoCorasickMatcher.Builder<AssignmentDefinition> titles = AhoCorasickMatcher.builder();
+            AhoCorasickMatcher.Builder<AssignmentDefinition> code = AhoCorasickMatcher.builder();
+            for (AssignmentDefinition definition : definitions) {
+                definition.getTitleKeywords().forEach(keyword -> titles.add(keyword, definition));
+                definition.getCodeKeywords().forEach(keyword -> code.add(keyword, definition));
+            }
+            this.titleMatcher = titles.build();
+            this.codeMatcher = code.build();
+        }
+
+        private AssignmentDefinition detect(String title, String code) {
+            BestMatch best = new BestMatch();
+            titleMatcher.scan(title, best);
+            codeMatcher.scan(code, best);
+            return best.definition;
+        }
+    }
+
+    private static final class BestMatch implements Consumer<AssignmentDefinition> {
+        private AssignmentDefinition definition;
+
+        @Override
+        public void accept(AssignmentDefinition candidate) {
+            if (definition == null || candidate.getPriority() < definition.getPriority()) {
+                definition = candidate;
+            }
+        }
+    }
+}
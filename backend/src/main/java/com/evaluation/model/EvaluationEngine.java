@@ -1,27 +1,112 @@
 package com.evaluation.model;
 
+import com.evaluation.comparison.ComparisonResult;
+import com.evaluation.concurrent.VirtualThreads;
+import com.evaluation.execution.CompilationCache;
+import com.evaluation.execution.CompilationResult;
+import com.evaluation.execution.ExecutionResult;
+import com.evaluation.execution.SandboxExecutor;
+import com.evaluation.execution.SandboxProfile;
+import com.evaluation.metrics.MetricsRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.*;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 @Component
 public class EvaluationEngine {
-    private Map<String, List<TestCase>> testRepository;
+    private static final int DEFAULT_TEST_THREADS = 4;
+    private static final long QUEUED_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    
+    // Read without locking by every grader; replaced wholesale by publishTestSuites
+    private volatile TestSuiteSnapshot testSuites;
+    private AssignmentTypeRegistry typeRegistry;
     private ExecutorService executorService;
+    // Only set on virtual threads, where the executor itself no longer bounds concurrent sandbox runs and compiles
+    private Semaphore testRunnerSlots;
+    private Semaphore compileSlots;
+    private int testThreads;
+    private SandboxExecutor sandboxExecutor;
+    private MetricsRegistry metrics = new MetricsRegistry();
+    private EvaluationResultCache resultCache;
     private long timeoutMillis;
+    private long testCaseTimeoutMillis;
     private String sandboxConfig;
     
+    @Value("${evaluation.startup.defer-prewarm:false}")
+    private boolean deferPrewarm;
+    
     public EvaluationEngine() {
-        this.testRepository = new HashMap<>();
-        this.executorService = Executors.newCachedThreadPool();
-        this.timeoutMillis = 30000; // 30 seconds
-        this.sandboxConfig = "default";
+        this(new SandboxExecutor(), DEFAULT_TEST_THREADS, 30000, 10000, "default", 10000, false);
+    }
+    
+    @Autowired
+    public EvaluationEngine(SandboxExecutor sandboxExecutor,
+                            @Value("${evaluation.engine.test-threads:4}") int testThreads,
+                            @Value("${evaluation.engine.timeout-millis:30000}") long timeoutMillis,
+                            @Value("${evaluation.engine.test-case-timeout-millis:10000}") long testCaseTimeoutMillis,
+                            @Value("${evaluation.sandbox.profile:default}") String sandboxConfig,
+                            @Value("${evaluation.result-cache.max-entries:10000}") int resultCacheEntries,
+                            @Value("${evaluation.threads.virtual:false}") boolean virtualThreads) {
+        this.typeRegistry = new AssignmentTypeRegistry("hello-world");
+        this.testThreads = testThreads;
+        if (VirtualThreads.enabled(virtualThreads)) {
+            // Test runners mostly wait on worker processes, so they are cheap virtual threads gated by permits
+            this.executorService = VirtualThreads.newThreadPerTaskExecutor("test-runner-");
+            this.testRunnerSlots = new Semaphore(testThreads, true);
+            this.compileSlots = new Semaphore(Runtime.getRuntime().availableProcessors(), true);
+        } else {
+            this.executorService = createTestExecutor(testThreads);
+        }
+        this.sandboxExecutor = sandboxExecutor;
+        this.resultCache = new EvaluationResultCache(resultCacheEntries);
+        this.timeoutMillis = timeoutMillis; // whole submission
+        this.testCaseTimeoutMillis = testCaseTimeoutMillis;
+        this.sandboxConfig = sandboxConfig;
         initializeTestCases();
     }
     
+    // Start worker JVMs ahead of the first submission
+    @PostConstruct
+    public void prewarmSandbox() {
+        if (!deferPrewarm) {
+            sandboxExecutor.prewarm(SandboxProfile.fromConfig(sandboxConfig));
+        }
+    }
+    
+    // Fast startup: spawning worker JVMs competes with context startup for CPU, so wait until the node is serving
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmSandboxWhenReady() {
+        if (deferPrewarm) {
+            sandboxExecutor.prewarm(SandboxProfile.fromConfig(sandboxConfig));
+        }
+    }
+    
+    // Bounded pool shared by all submissions; idle threads are released between deadline spikes
+    private static ThreadPoolExecutor createTestExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "test-runner-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
     // Initialize predefined test cases
     private void initializeTestCases() {
+        Map<String, List<TestCase>> testRepository = new HashMap<>();
+        
         // Test cases for "Hello World" program
         List<TestCase> helloWorldTests = Arrays.asList(
             new TestCase("", "Hello World", 1.0, "Basic Hello World output"),
@@ -54,133 +139,193 @@ public class EvaluationEngine {
             new TestCase("1", "Not Prime", 1.0, "Check number 1")
         );
         testRepository.put("prime-check", primeTests);
+        testSuites = new TestSuiteSnapshot(0, testRepository);
+        
+        // Keyword detection for submissions without an explicit type, in the historical order
+        typeRegistry.registerAll(Arrays.asList(
+            new AssignmentDefinition("hello-world", "Hello World", 0, List.of("hello"), List.of("hello world")),
+            new AssignmentDefinition("add-numbers", "Add Two Numbers", 1, List.of("add", "sum"), List.of("add")),
+            new AssignmentDefinition("fibonacci", "Fibonacci", 2, List.of("fibonacci"), List.of("fibonacci")),
+            new AssignmentDefinition("prime-check", "Prime Check", 3, List.of("prime"), List.of("prime"))
+        ));
     }
     
     public EvaluationResult evaluateAssignment(Assignment assignment) {
         try {
             String assignmentType = determineAssignmentType(assignment);
-            List<TestCase> testCases = getTestCases(assignmentType);
+            TestSuiteSnapshot suites = testSuites;
+            List<TestCase> testCases = suites.getSuite(assignmentType);
             
             if (testCases.isEmpty()) {
                 return new EvaluationResult(0.0, "No test cases found for this assignment type", false);
             }
             
-            List<TestResult> results = runTestCases(assignment, testCases);
-            return generateEvaluationResult(assignment, results);
+            // Identical source against an unchanged suite always produces the same result
+            String sourceHash = CompilationCache.hash(CompilationCache.normalize(assignment.getCodeContent()));
+            String cacheKey = EvaluationResultCache.key(sourceHash, assignmentType,
+                suites.getFingerprint(assignmentType), SandboxProfile.fromConfig(sandboxConfig).getConfigName());
+            EvaluationResult cached = resultCache.get(cacheKey, assignment);
+            if (cached != null) {
+                return cached;
+            }
+            
+            long compileStart = System.nanoTime();
+            CompilationResult program = compile(assignment.getCodeContent());
+            metrics.timer("evaluation.compile", "outcome", program.isSuccess() ? "success" : "failure").recordSince(compileStart);
+            if (!program.isSuccess()) {
+                EvaluationResult failure = generateCompilationFailure(assignment, program);
+                resultCache.put(cacheKey, failure);
+                return failure;
+            }
+            
+            List<TestResult> results = runTestCases(program, testCases);
+            EvaluationResult evaluationResult = generateEvaluationResult(assignment, results);
+            if (results.stream().allMatch(TestResult::isReproducible)) {
+                resultCache.put(cacheKey, evaluationResult);
+            }
+            return evaluationResult;
             
         } catch (Exception e) {
             return new EvaluationResult(0.0, "Evaluation failed: " + e.getMessage(), false);
         }
     }
     
-    private String determineAssignmentType(Assignment assignment) {
-        String title = assignment.getTitle().toLowerCase();
-        String code = assignment.getCodeContent().toLowerCase();
-        
-        if (title.contains("hello") || code.contains("hello world")) {
-            return "hello-world";
-        } else if (title.contains("add") || title.contains("sum") || code.contains("add")) {
-            return "add-numbers";
-        } else if (title.contains("fibonacci") || code.contains("fibonacci")) {
-            return "fibonacci";
-        } else if (title.contains("prime") || code.contains("prime")) {
-            return "prime-check";
-        }
-        
-        return "hello-world"; // Default fallback
+    // Package-private stages are exercised directly by the benchmarks module
+    String determineAssignmentType(Assignment assignment) {
+        return typeRegistry.resolve(assignment);
     }
     
-    private List<TestCase> getTestCases(String assignmentType) {
-        return testRepository.getOrDefault(assignmentType, new ArrayList<>());
+    private CompilationResult compile(String source) throws InterruptedException {
+        if (compileSlots == null) {
+            return sandboxExecutor.compile(source);
+        }
+        compileSlots.acquire();
+        try {
+            return sandboxExecutor.compile(source);
+        } finally {
+            compileSlots.release();
+        }
     }
     
-    private List<TestResult> runTestCases(Assignment assignment, List<TestCase> testCases) {
-        List<TestResult> results = new ArrayList<>();
+    List<TestResult> runTestCases(CompilationResult program, List<TestCase> testCases) throws InterruptedException {
+        SandboxProfile profile = SandboxProfile.fromConfig(sandboxConfig);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long testCaseTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(testCaseTimeoutMillis);
         
-        for (TestCase testCase : testCases) {
-            try {
-                String output = executeCode(assignment.getCodeContent(), testCase.getInput());
-                boolean passed = testCase.validateOutput(output);
-                double score = passed ? testCase.getWeight() : 0.0;
-                
-                results.add(new TestResult(testCase, output, passed, score));
-            } catch (Exception e) {
-                results.add(new TestResult(testCase, "Error: " + e.getMessage(), false, 0.0));
+        // Each task records when it gets a test runner; the per-test limit counts from there,
+        // so time spent queued behind other test cases only counts against the submission limit
+        AtomicLongArray startedAt = new AtomicLongArray(testCases.size());
+        List<Future<TestResult>> futures = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            TestCase testCase = testCases.get(i);
+            int index = i;
+            futures.add(executorService.submit(() -> runTestCase(program, testCase, profile, startedAt, index)));
+        }
+        
+        // Collect in submission order so feedback keeps the original test case ordering
+        List<TestResult> results = new ArrayList<>(testCases.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(awaitTestCase(futures.get(i), testCases.get(i), startedAt, i, deadline, testCaseTimeoutNanos));
+            }
+        } finally {
+            // Interrupted or failed collection must not leave stragglers running
+            for (Future<TestResult> future : futures) {
+                future.cancel(true);
             }
         }
         
         return results;
     }
     
-    private String executeCode(String code, String input) throws Exception {
-        // Simple Java code execution simulation
-        // In production, this would use a proper sandboxed execution environment
-        
-        if (code.contains("System.out.println(\"Hello World\")") && input.isEmpty()) {
-            return "Hello World";
-        }
-        
-        if (code.contains("Scanner") && code.contains("nextInt()") && code.contains("+")) {
-            String[] inputs = input.split(" ");
-            if (inputs.length == 2) {
-                int a = Integer.parseInt(inputs[0]);
-                int b = Integer.parseInt(inputs[1]);
-                return String.valueOf(a + b);
+    private TestResult awaitTestCase(Future<TestResult> future, TestCase testCase, AtomicLongArray startedAt, int index,
+                                     long deadline, long testCaseTimeoutNanos) throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            long started = startedAt.get(index);
+            // A queued task is re-checked often so its own limit starts close to when it does
+            long wait = Math.min(deadline - now, started == 0 ? QUEUED_POLL_NANOS : started + testCaseTimeoutNanos - now);
+            try {
+                return future.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                return new TestResult(testCase, "Error: " + e.getCause().getMessage(), false, 0.0, false);
+            } catch (TimeoutException e) {
+                now = System.nanoTime();
+                started = startedAt.get(index);
+                String reason;
+                if (started != 0 && now - started >= testCaseTimeoutNanos) {
+                    reason = "Test case timed out after " + testCaseTimeoutMillis + " ms";
+                } else if (deadline - now > 0) {
+                    continue;
+                } else if (started == 0) {
+                    reason = "Not run: submission time limit exceeded while waiting for a test runner";
+                } else {
+                    reason = "Submission time limit exceeded";
+                }
+                future.cancel(true);
+                return new TestResult(testCase, "Error: " + reason, false, 0.0, false);
             }
         }
-        
-        if (code.contains("fibonacci") || code.contains("Fibonacci")) {
-            int n = Integer.parseInt(input);
-            return generateFibonacci(n);
-        }
-        
-        if (code.contains("prime") || code.contains("Prime")) {
-            int num = Integer.parseInt(input);
-            return isPrime(num) ? "Prime" : "Not Prime";
-        }
-        
-        return "No output"; // Default fallback
     }
     
-    private String generateFibonacci(int n) {
-        if (n <= 0) return "";
-        if (n == 1) return "0";
-        
-        StringBuilder result = new StringBuilder();
-        int a = 0, b = 1;
-        result.append(a);
-        
-        for (int i = 1; i < n; i++) {
-            result.append(" ").append(b);
-            int temp = a + b;
-            a = b;
-            b = temp;
+    private TestResult runTestCase(CompilationResult program, TestCase testCase, SandboxProfile profile,
+                                   AtomicLongArray startedAt, int index) {
+        long start = System.nanoTime();
+        try {
+            ExecutionResult execution = execute(program, testCase, profile, startedAt, index);
+            metrics.timer("evaluation.testcase", "status", execution.getStatus().name()).recordSince(start);
+            if (!execution.isSuccess()) {
+                return new TestResult(testCase, "Error: " + execution.getMessage(), false, 0.0, execution.isReproducible());
+            }
+            
+            String output = execution.getOutput();
+            ComparisonResult comparison = testCase.compareOutput(output);
+            double score = testCase.getWeight() * comparison.getCredit();
+            
+            return new TestResult(testCase, output, comparison.isMatch(), score);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new TestResult(testCase, "Error: Execution cancelled", false, 0.0, false);
+        } catch (Exception e) {
+            return new TestResult(testCase, "Error: " + e.getMessage(), false, 0.0, false);
         }
-        
-        return result.toString();
     }
     
-    private boolean isPrime(int n) {
-        if (n <= 1) return false;
-        if (n == 2) return true;
-        if (n % 2 == 0) return false;
-        
-        for (int i = 3; i * i <= n; i += 2) {
-            if (n % i == 0) return false;
+    private ExecutionResult execute(CompilationResult program, TestCase testCase, SandboxProfile profile,
+                                    AtomicLongArray startedAt, int index) throws InterruptedException {
+        if (testRunnerSlots == null) {
+            startedAt.set(index, System.nanoTime());
+            return sandboxExecutor.execute(program, testCase.getInput(), profile);
+        }
+        testRunnerSlots.acquire();
+        try {
+            startedAt.set(index, System.nanoTime());
+            return sandboxExecutor.execute(program, testCase.getInput(), profile);
+        } finally {
+            testRunnerSlots.release();
         }
-        return true;
     }
     
-    private EvaluationResult generateEvaluationResult(Assignment assignment, List<TestResult> results) {
+    private EvaluationResult generateCompilationFailure(Assignment assignment, CompilationResult program) {
+        EvaluationResult evaluationResult = new EvaluationResult(0.0, "Compilation failed:\n" + program.getDiagnostics(), false);
+        evaluationResult.setDetailedFeedback(program.getDiagnostics());
+        evaluationResult.setAssignment(assignment);
+        return evaluationResult;
+    }
+    
+    EvaluationResult generateEvaluationResult(Assignment assignment, List<TestResult> results) {
         double totalScore = 0.0;
         double maxScore = 0.0;
         StringBuilder feedback = new StringBuilder();
         
         int passedTests = 0;
-        for (TestResult result : results) {
+        char[] outcomes = new char[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            TestResult result = results.get(i);
             totalScore += result.getScore();
             maxScore += result.getTestCase().getWeight();
             if (result.isPassed()) passedTests++;
+            outcomes[i] = result.isPassed() ? '1' : '0';
             
             feedback.append(String.format("Test: %s - %s (Score: %.1f/%.1f)\n", 
                 result.getTestCase().getDescription(),
@@ -197,23 +342,30 @@ public class EvaluationEngine {
         
         EvaluationResult evaluationResult = new EvaluationResult(percentage, remarks, passed);
         evaluationResult.setDetailedFeedback(feedback.toString());
+        evaluationResult.setTestOutcomes(new String(outcomes));
         evaluationResult.setAssignment(assignment);
         
         return evaluationResult;
     }
     
     // Helper class for test results
-    private static class TestResult {
+    static class TestResult {
         private TestCase testCase;
         private String actualOutput;
         private boolean passed;
         private double score;
+        private boolean reproducible;
         
         public TestResult(TestCase testCase, String actualOutput, boolean passed, double score) {
+            this(testCase, actualOutput, passed, score, true);
+        }
+        
+        public TestResult(TestCase testCase, String actualOutput, boolean passed, double score, boolean reproducible) {
             this.testCase = testCase;
             this.actualOutput = actualOutput;
             this.passed = passed;
             this.score = score;
+            this.reproducible = reproducible;
         }
         
         // Getters
@@ -221,15 +373,56 @@ public class EvaluationEngine {
         public String getActualOutput() { return actualOutput; }
         public boolean isPassed() { return passed; }
         public double getScore() { return score; }
+        public boolean isReproducible() { return reproducible; }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdownNow();
     }
     
     // Getters and Setters
-    public Map<String, List<TestCase>> getTestRepository() { return testRepository; }
-    public void setTestRepository(Map<String, List<TestCase>> testRepository) { this.testRepository = testRepository; }
+    public Map<String, List<TestCase>> getTestRepository() { return testSuites.getSuites(); }
+    public void setTestRepository(Map<String, List<TestCase>> testRepository) {
+        publishTestSuites(testRepository);
+    }
+    
+    // Writers are serialized; the new snapshot becomes visible to graders in one reference swap.
+    // Memoized results stay valid for unchanged suites because the cache key holds the suite fingerprint.
+    public synchronized TestSuiteSnapshot publishTestSuites(Map<String, List<TestCase>> suites) {
+        TestSuiteSnapshot snapshot = new TestSuiteSnapshot(testSuites.getVersion() + 1, suites);
+        testSuites = snapshot;
+        return snapshot;
+    }
+    
+    public TestSuiteSnapshot getTestSuites() { return testSuites; }
+    
+    public EvaluationResultCache getResultCache() { return resultCache; }
+    
+    public AssignmentTypeRegistry getTypeRegistry() { return typeRegistry; }
+    
+    @Autowired
+    public void setMetrics(MetricsRegistry metrics) { this.metrics = metrics; }
+    
+    // Test-runner pool utilization
+    public int getActiveTestRunners() {
+        return testRunnerSlots != null
+            ? testThreads - testRunnerSlots.availablePermits()
+            : ((ThreadPoolExecutor) executorService).getActiveCount();
+    }
+    public int getTestRunnerPoolSize() { return testThreads; }
+    public int getQueuedTestCases() {
+        return testRunnerSlots != null
+            ? testRunnerSlots.getQueueLength()
+            : ((ThreadPoolExecutor) executorService).getQueue().size();
+    }
     
     public long getTimeoutMillis() { return timeoutMillis; }
     public void setTimeoutMillis(long timeoutMillis) { this.timeoutMillis = timeoutMillis; }
     
+    public long getTestCaseTimeoutMillis() { return testCaseTimeoutMillis; }
+    public void setTestCaseTimeoutMillis(long testCaseTimeoutMillis) { this.testCaseTimeoutMillis = testCaseTimeoutMillis; }
+    
     public String getSandboxConfig() { return sandboxConfig; }
     public void setSandboxConfig(String sandboxConfig) { this.sandboxConfig = sandboxConfig; }
 }
\ No newline at end of file
@@ -26,6 +26,14 @@ public class EvaluationResult {
     @Column(columnDefinition = "TEXT")
     private String detailedFeedback;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private EvaluationStatus status;
+
+    // One character per test case in suite order, '1' passed and '0' failed; null when no test ran
+    @Column(length = 1024)
+    private String testOutcomes;
+
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assignment_id")
     @JsonBackReference("assignment-result")
@@ -39,6 +47,7 @@ public class EvaluationResult {
         this.remarks = remarks;
         this.passed = passed;
         this.timestamp = LocalDateTime.now();
+        this.status = EvaluationStatus.DONE;
     }
 
     // Getters and Setters
@@ -60,6 +69,13 @@ public class EvaluationResult {
     public String getDetailedFeedback() { return detailedFeedback; }
     public void setDetailedFeedback(String detailedFeedback) { this.detailedFeedback = detailedFeedback; }
 
+    // Rows written before asynchronous grading existed have no status and are complete
+    public EvaluationStatus getStatus() { return status != null ? status : EvaluationStatus.DONE; }
+    public void setStatus(EvaluationStatus status) { this.status = status; }
+
+    public String getTestOutcomes() { return testOutcomes; }
+    public void setTestOutcomes(String testOutcomes) { this.testOutcomes = testOutcomes; }
+
     public Assignment getAssignment() { return assignment; }
     public void setAssignment(Assignment assignment) { this.assignment = assignment; }
 
@@ -75,6 +91,10 @@ public class EvaluationResult {
     }
 
     public String getGradeLetter() {
+        return gradeLetter(score);
+    }
+
+    public static String gradeLetter(double score) {
         if (score >= 90) return "A";
         if (score >= 80) return "B";
         if (score >= 70) return "C";
@@ -0,0 +1,121 @@
+package com.evaluation.model;
+
+import com.evaluation.execution.CompilationCache;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Memoizes complete evaluations of identical (source, test suite, sandbox profile) combinations.
+// Entries are never invalidated explicitly: a changed test suite changes the key.
+public class EvaluationResultCache {
+    private final int maxEntries;
+    private final Map<String, CachedEvaluation> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EvaluationResultCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, CachedEvaluation>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEvaluation> eldest) {
+                if (size() > EvaluationResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static String key(String sourceHash, String assignmentType, String suiteVersion, String sandboxProfile) {
+        return sourceHash + ':' + assignmentType + ':' + suiteVersion + ':' + sandboxProfile;
+    }
+
+    // Content fingerprint of a test suite: SHA-256 over every grading field of every test case in
+    // order. Each field is length-prefixed (null is "-"), so no two different suites serialize alike.
+    public static String suiteVersion(List<TestCase> testCases) {
+        StringBuilder serialized = new StringBuilder();
+        serialized.append(testCases.size()).append(';');
+        for (TestCase testCase : testCases) {
+            appendField(serialized, testCase.getInput());
+            appendField(serialized, testCase.getExpectedOutput());
+            appendField(serialized, Double.toString(testCase.getWeight()));
+            appendField(serialized, testCase.getDescription());
+            appendField(serialized, testCase.getComparisonMode() != null ? testCase.getComparisonMode().name() : null);
+            appendField(serialized, testCase.getTolerance() != null ? testCase.getTolerance().toString() : null);
+            appendField(serialized, testCase.getPartialCredit() != null ? testCase.getPartialCredit().toString() : null);
+        }
+        return CompilationCache.hash(serialized.toString());
+    }
+
+    private static void appendField(StringBuilder serialized, String value) {
+        if (value == null) {
+            serialized.append('-');
+        } else {
+            serialized.append(value.length()).append(':').append(value);
+        }
+    }
+
+    // Returns a fresh result so callers can attach and persist it independently
+    public EvaluationResult get(String key, Assignment assignment) {
+        CachedEvaluation cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+
+        EvaluationResult result = new EvaluationResult(cached.score, cached.remarks, cached.passed);
+        result.setDetailedFeedback(cached.detailedFeedback);
+        result.setTestOutcomes(cached.testOutcomes);
+        result.setAssignment(assignment);
+        return result;
+    }
+
+    public void put(String key, EvaluationResult result) {
+        CachedEvaluation cached = new CachedEvaluation(result.getScore(), result.getRemarks(),
+            result.isPassed(), result.getDetailedFeedback(), result.getTestOutcomes());
+        synchronized (entries) {
+            entries.put(key, cached);
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // Statistics
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+    public int getMaxEntries() { return maxEntries; }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private static class CachedEvaluation {
+        private final double score;
+        private final String remarks;
+        private final boolean passed;
+        private final String detailedFeedback;
+        private final String testOutcomes;
+
+        CachedEvaluation(double score, String remarks, boolean passed, String detailedFeedback, String testOutcomes) {
+            this.score = score;
+            this.remarks = remarks;
+            this.passed = passed;
+            this.detailedFeedback = detailedFeedback;
+            this.testOutcomes = testOutcomes;
+        }
+    }
+}
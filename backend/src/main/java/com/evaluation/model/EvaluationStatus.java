@@ -0,0 +1,12 @@
+package com.evaluation.model;
+
+public enum EvaluationStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == DONE || this == FAILED;
+    }
+}
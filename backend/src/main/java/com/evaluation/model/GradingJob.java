@@ -0,0 +1,63 @@
+package com.evaluation.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Durable grading work item. Rows are written and claimed with plain SQL by GradingJobQueue;
+// the mapping defines the table and serves read-only views. All times come from the database
+// clock so leases mean the same thing on every node.
+@Entity
+@Table(name = "grading_jobs", indexes = {
+    @Index(name = "idx_grading_jobs_pending", columnList = "status, available_at"),
+    @Index(name = "idx_grading_jobs_lease", columnList = "status, lease_expires_at")
+})
+public class GradingJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "job_id")
+    private Long jobId;
+
+    @Column(name = "assignment_id", nullable = false, unique = true)
+    private Long assignmentId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private GradingJobStatus status;
+
+    // Claims so far, including the current one
+    @Column(nullable = false)
+    private int attempts;
+
+    // Not claimable before this time; pushed back after a failed attempt
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    // Worker node holding the job while RUNNING
+    @Column(length = 128)
+    private String leaseOwner;
+
+    // A RUNNING job whose lease expired belongs to a crashed or stalled worker and is claimable again
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Getters
+    public Long getJobId() { return jobId; }
+    public Long getAssignmentId() { return assignmentId; }
+    public GradingJobStatus getStatus() { return status; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getAvailableAt() { return availableAt; }
+    public String getLeaseOwner() { return leaseOwner; }
+    public LocalDateTime getLeaseExpiresAt() { return leaseExpiresAt; }
+    public String getLastError() { return lastError; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
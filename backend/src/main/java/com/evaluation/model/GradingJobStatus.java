@@ -0,0 +1,8 @@
+package com.evaluation.model;
+
+public enum GradingJobStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,46 @@
+package com.evaluation.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// MinHash signature of one submission's normalized source, used by the similarity index.
+// Rows are written with JDBC and loaded per title in signatureId order, so a node can pick up
+// signatures written by other nodes by reading past the last id it has seen.
+@Entity
+@Table(name = "submission_signatures", indexes =
+    @Index(name = "idx_submission_signatures_title", columnList = "title, signature_id"))
+public class SubmissionSignature {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "signature_id")
+    private Long signatureId;
+
+    @Column(name = "assignment_id", nullable = false, unique = true)
+    private Long assignmentId;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(name = "student_id")
+    private String studentId;
+
+    // Normalized tokens in the source; very short programs are left out of comparisons
+    @Column(name = "token_count", nullable = false)
+    private int tokenCount;
+
+    // One 32-bit minimum per hash function, big-endian
+    @Column(name = "min_hash", nullable = false, columnDefinition = "VARBINARY(2048)")
+    private byte[] minHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Getters
+    public Long getSignatureId() { return signatureId; }
+    public Long getAssignmentId() { return assignmentId; }
+    public String getTitle() { return title; }
+    public String getStudentId() { return studentId; }
+    public int getTokenCount() { return tokenCount; }
+    public byte[] getMinHash() { return minHash; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -1,11 +1,53 @@
 package com.evaluation.model;
 
+import com.evaluation.comparison.ComparisonMode;
+import com.evaluation.comparison.ComparisonResult;
+import com.evaluation.comparison.OutputComparator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import javax.persistence.*;
+
+@Entity
+@Table(name = "test_cases", indexes = @Index(name = "idx_test_cases_type", columnList = "assignment_type, position_index"))
 public class TestCase {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @JsonIgnore
+    private Long testCaseId;
+    
+    @Column(name = "assignment_type", nullable = false, length = 64)
+    @JsonIgnore
+    private String assignmentType;
+    
+    // Order of the test case within its suite
+    @Column(name = "position_index", nullable = false)
+    @JsonIgnore
+    private int position;
+    
+    @Column(columnDefinition = "TEXT")
     private String input;
+    
+    @Column(columnDefinition = "TEXT")
     private String expectedOutput;
+    
     private double weight;
+    
     private String description;
     
+    // Null on rows stored before comparison modes existed, which compare EXACT without partial credit
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private ComparisonMode comparisonMode;
+    
+    // Absolute or relative difference allowed between numbers in FLOAT_TOLERANCE mode
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Double tolerance;
+    
+    // Award the share of matching lines instead of all-or-nothing
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean partialCredit;
+    
     // Constructors
     public TestCase() {}
     
@@ -16,7 +58,25 @@ public class TestCase {
         this.description = description;
     }
     
+    // Detached copy carrying only the grading fields
+    public TestCase copy() {
+        TestCase copy = new TestCase(input, expectedOutput, weight, description);
+        copy.setComparisonMode(comparisonMode);
+        copy.setTolerance(tolerance);
+        copy.setPartialCredit(partialCredit);
+        return copy;
+    }
+    
     // Getters and Setters
+    public Long getTestCaseId() { return testCaseId; }
+    public void setTestCaseId(Long testCaseId) { this.testCaseId = testCaseId; }
+    
+    public String getAssignmentType() { return assignmentType; }
+    public void setAssignmentType(String assignmentType) { this.assignmentType = assignmentType; }
+    
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+    
     public String getInput() { return input; }
     public void setInput(String input) { this.input = input; }
     
@@ -29,16 +89,28 @@ public class TestCase {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
     
+    public ComparisonMode getComparisonMode() { return comparisonMode; }
+    public void setComparisonMode(ComparisonMode comparisonMode) { this.comparisonMode = comparisonMode; }
+    
+    public Double getTolerance() { return tolerance; }
+    public void setTolerance(Double tolerance) { this.tolerance = tolerance; }
+    
+    public Boolean getPartialCredit() { return partialCredit; }
+    public void setPartialCredit(Boolean partialCredit) { this.partialCredit = partialCredit; }
+    
     // Business Methods
+    public ComparisonResult compareOutput(CharSequence actualOutput) {
+        return OutputComparator.compare(expectedOutput, actualOutput,
+            comparisonMode != null ? comparisonMode : ComparisonMode.EXACT,
+            tolerance != null ? tolerance : OutputComparator.DEFAULT_TOLERANCE,
+            Boolean.TRUE.equals(partialCredit));
+    }
+    
     public boolean validateOutput(String actualOutput) {
-        return expectedOutput.trim().equals(actualOutput.trim());
+        return compareOutput(actualOutput).isMatch();
     }
     
     public double calculatePartialScore(String actualOutput) {
-        if (validateOutput(actualOutput)) {
-            return weight;
-        }
-        // Could implement fuzzy matching for partial credit
-        return 0.0;
+        return weight * compareOutput(actualOutput).getCredit();
     }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.evaluation.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable view of every test suite at one point in time. Graders read a snapshot without
+// locking; edits build a new snapshot that replaces the old one in a single reference swap.
+public final class TestSuiteSnapshot {
+
+    private final long version;
+    private final LocalDateTime loadedAt;
+    private final Map<String, List<TestCase>> suites;
+    private final Map<String, String> fingerprints;
+
+    TestSuiteSnapshot(long version, Map<String, List<TestCase>> source) {
+        Map<String, List<TestCase>> suites = new HashMap<>();
+        Map<String, String> fingerprints = new HashMap<>();
+        for (Map.Entry<String, List<TestCase>> suite : source.entrySet()) {
+            List<TestCase> copies = new ArrayList<>(suite.getValue().size());
+            for (TestCase testCase : suite.getValue()) {
+                copies.add(testCase.copy());
+            }
+            suites.put(suite.getKey(), Collections.unmodifiableList(copies));
+            fingerprints.put(suite.getKey(), EvaluationResultCache.suiteVersion(copies));
+        }
+        this.version = version;
+        this.loadedAt = LocalDateTime.now();
+        this.suites = Collections.unmodifiableMap(suites);
+        this.fingerprints = Collections.unmodifiableMap(fingerprints);
+    }
+
+    public List<TestCase> getSuite(String assignmentType) {
+        return suites.getOrDefault(assignmentType, List.of());
+    }
+
+    // Content fingerprint of one suite, computed once per snapshot for the result cache key
+    public String getFingerprint(String assignmentType) {
+        return fingerprints.get(assignmentType);
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public LocalDateTime getLoadedAt() { return loadedAt; }
+    public Map<String, List<TestCase>> getSuites() { return suites; }
+}
@@ -1,12 +1,61 @@
 package com.evaluation.repository;
 
+import com.evaluation.dto.AssignmentSummary;
+import com.evaluation.dto.SubmissionSource;
 import com.evaluation.model.Assignment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AssignmentRepository extends JpaRepository<Assignment, Long> {
     List<Assignment> findByStudent_StudentId(String studentId);
     List<Assignment> findByTitle(String title);
+    long countByTitle(String title);
+
+    // Loads the submission and its result in one query instead of a second select for the inverse one-to-one
+    @EntityGraph(attributePaths = "evaluationResult")
+    Optional<Assignment> findWithResultByAssignmentId(Long assignmentId);
+
+    // Keyset page of findByTitle: pass the last assignmentId seen, starting from 0
+    @Query("select new com.evaluation.dto.SubmissionSource(a.assignmentId, a.title, a.storedCodeContent, " +
+           "a.assignmentType, a.sourceHash, a.student.studentId) " +
+           "from Assignment a where a.title = :title and a.assignmentId > :afterId order by a.assignmentId")
+    List<SubmissionSource> findSubmissionsByTitleAfter(@Param("title") String title, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Newest-first keyset pages of a student's submissions with their results, in one query.
+    // Pass Long.MAX_VALUE as beforeId for the first page, then the last assignmentId seen.
+    @Query("select new com.evaluation.dto.AssignmentSummary(a.assignmentId, a.title, a.assignmentType, " +
+           "a.submissionTime, a.deadline, r.status, r.score, r.passed) " +
+           "from Assignment a left join a.evaluationResult r " +
+           "where a.student.studentId = :studentId and a.assignmentId < :beforeId order by a.assignmentId desc")
+    List<AssignmentSummary> findSummariesByStudentBefore(@Param("studentId") String studentId,
+                                                         @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Same page with the source reference; inline sources of legacy rows come along directly
+    @Query("select new com.evaluation.dto.AssignmentSummary(a.assignmentId, a.title, a.assignmentType, " +
+           "a.submissionTime, a.deadline, r.status, r.score, r.passed, a.storedCodeContent, a.sourceHash) " +
+           "from Assignment a left join a.evaluationResult r " +
+           "where a.student.studentId = :studentId and a.assignmentId < :beforeId order by a.assignmentId desc")
+    List<AssignmentSummary> findSummariesWithCodeByStudentBefore(@Param("studentId") String studentId,
+                                                                 @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Rows whose source is still stored inline, for migration into the blob store
+    @Query("select new com.evaluation.dto.SubmissionSource(a.assignmentId, a.title, a.storedCodeContent, " +
+           "a.assignmentType, a.sourceHash, a.student.studentId) " +
+           "from Assignment a where a.sourceHash is null and a.storedCodeContent is not null and a.assignmentId > :afterId " +
+           "order by a.assignmentId")
+    List<SubmissionSource> findInlineSourcesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("update Assignment a set a.sourceHash = :sourceHash, a.submissionFilePath = :path, a.storedCodeContent = null " +
+           "where a.assignmentId = :assignmentId")
+    int moveSourceToBlobStore(@Param("assignmentId") Long assignmentId, @Param("sourceHash") String sourceHash,
+                              @Param("path") String path);
 }
\ No newline at end of file
@@ -1,12 +1,63 @@
 package com.evaluation.repository;
 
+import com.evaluation.dto.ResultExportRow;
+import com.evaluation.dto.ResultSummary;
 import com.evaluation.model.EvaluationResult;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface EvaluationResultRepository extends JpaRepository<EvaluationResult, Long> {
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+    String EXPORT_SELECT = "select new com.evaluation.dto.ResultExportRow(r.resultId, a.assignmentId, s.studentId, " +
+        "s.name, a.title, a.assignmentType, a.submissionTime, a.deadline, r.score, r.passed, r.status, r.timestamp) " +
+        "from EvaluationResult r join r.assignment a join a.student s ";
+
     List<EvaluationResult> findByAssignment_Student_StudentId(String studentId);
     EvaluationResult findByAssignment_AssignmentId(Long assignmentId);
+
+    // (assignmentId, result) pairs for a batch of assignments
+    @Query("select a.assignmentId, r from EvaluationResult r join r.assignment a where a.assignmentId in :ids")
+    List<Object[]> findByAssignmentIds(@Param("ids") Collection<Long> ids);
+
+    // Newest-first keyset pages of a student's results joined with their submissions, in one query.
+    // Pass Long.MAX_VALUE as beforeId for the first page, then the last assignmentId seen.
+    @Query("select new com.evaluation.dto.ResultSummary(r.resultId, a.assignmentId, a.title, a.submissionTime, " +
+           "r.score, r.passed, r.status, r.remarks, r.timestamp) " +
+           "from EvaluationResult r join r.assignment a " +
+           "where a.student.studentId = :studentId and a.assignmentId < :beforeId order by a.assignmentId desc")
+    List<ResultSummary> findSummariesByStudentBefore(@Param("studentId") String studentId,
+                                                     @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Same page including the TEXT feedback column
+    @Query("select new com.evaluation.dto.ResultSummary(r.resultId, a.assignmentId, a.title, a.submissionTime, " +
+           "r.score, r.passed, r.status, r.remarks, r.timestamp, r.detailedFeedback) " +
+           "from EvaluationResult r join r.assignment a " +
+           "where a.student.studentId = :studentId and a.assignmentId < :beforeId order by a.assignmentId desc")
+    List<ResultSummary> findSummariesWithFeedbackByStudentBefore(@Param("studentId") String studentId,
+                                                                 @Param("beforeId") Long beforeId, Pageable pageable);
+
+    // Forward-only streams for the grade export; must be consumed inside a read-only transaction
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "order by r.resultId")
+    Stream<ResultExportRow> streamExportRows();
+
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+        @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "where a.title = :title order by r.resultId")
+    Stream<ResultExportRow> streamExportRowsByTitle(@Param("title") String title);
 }
\ No newline at end of file
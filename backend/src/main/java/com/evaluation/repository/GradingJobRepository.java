@@ -0,0 +1,14 @@
+package com.evaluation.repository;
+
+import com.evaluation.model.GradingJob;
+import com.evaluation.model.GradingJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface GradingJobRepository extends JpaRepository<GradingJob, Long> {
+    long countByStatus(GradingJobStatus status);
+
+    Optional<GradingJob> findByAssignmentId(Long assignmentId);
+}
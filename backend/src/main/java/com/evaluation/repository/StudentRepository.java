@@ -2,9 +2,19 @@ package com.evaluation.repository;
 
 import com.evaluation.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, String> {
     Student findByEmail(String email);
+
+    // Creates the row for a student id unless it already exists; concurrent first submissions
+    // of the same student both succeed and neither overwrites an existing name or email
+    @Modifying
+    @Query(value = "insert into students (student_id, name, email) values (:studentId, :name, :email) " +
+                   "on duplicate key update student_id = student_id", nativeQuery = true)
+    int insertIfAbsent(@Param("studentId") String studentId, @Param("name") String name, @Param("email") String email);
 }
\ No newline at end of file
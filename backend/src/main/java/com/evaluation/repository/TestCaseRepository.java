@@ -0,0 +1,19 @@
+package com.evaluation.repository;
+
+import com.evaluation.model.TestCase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
+    List<TestCase> findAllByOrderByAssignmentTypeAscPositionAsc();
+    List<TestCase> findByAssignmentTypeOrderByPositionAsc(String assignmentType);
+
+    @Modifying
+    @Query("delete from TestCase t where t.assignmentType = :assignmentType")
+    int deleteSuite(@Param("assignmentType") String assignmentType);
+}
@@ -1,9 +1,24 @@
 package com.evaluation.service;
 
+import com.evaluation.cache.CacheConfig;
+import com.evaluation.cache.CacheInvalidator;
+import com.evaluation.dto.AssignmentSummary;
+import com.evaluation.dto.ResultSummary;
+import com.evaluation.events.ResultEvent;
+import com.evaluation.events.ResultEventBus;
+import com.evaluation.metrics.Span;
+import com.evaluation.metrics.Trace;
+import com.evaluation.metrics.Tracer;
 import com.evaluation.model.*;
 import com.evaluation.repository.*;
+import com.evaluation.similarity.SimilarityService;
+import com.evaluation.storage.SourceBlobStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -11,8 +26,10 @@ import java.util.Optional;
 @Service
 public class EvaluationService {
     
+    public static final int MAX_PAGE_SIZE = 200;
+    
     @Autowired
-    private StudentRepository studentRepository;
+    private StudentService studentService;
     
     @Autowired
     private AssignmentRepository assignmentRepository;
@@ -26,56 +43,331 @@ public class EvaluationService {
     @Autowired
     private LoggingService loggingService;
     
-    public Assignment submitAssignment(String studentId, String title, String codeContent, LocalDateTime deadline) {
+    @Autowired
+    private GradingQueue gradingQueue;
+    
+    @Autowired
+    private Tracer tracer;
+    
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+    
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+    
+    @Autowired
+    private GradingJobQueue gradingJobQueue;
+    
+    @Autowired
+    private ResultEventBus resultEventBus;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private SimilarityService similarityService;
+    
+    // jobs: durable grading_jobs table served by any worker node; local: in-memory queue of this node
+    @Value("${evaluation.grading.dispatch:jobs}")
+    private String dispatch;
+    
+    public Assignment submitAssignment(String studentId, String title, String codeContent, LocalDateTime deadline, String assignmentType) {
+        Trace trace = tracer.start("submit").attribute("studentId", studentId);
         try {
-            // Find or create student
-            Student student = studentRepository.findById(studentId)
-                .orElse(new Student(studentId, "Student " + studentId, studentId + "@example.com"));
-            
-            if (student.getName().startsWith("Student ")) {
-                studentRepository.save(student);
-            }
-            
-            // Create assignment
-            Assignment assignment = new Assignment(title, "/uploads/" + System.currentTimeMillis() + ".java", deadline, codeContent);
-            assignment.setStudent(student);
-            
-            // Save assignment
-            assignment = assignmentRepository.save(assignment);
+            Assignment assignment = saveAssignment(newSubmission(studentId, title, codeContent, deadline, assignmentType, trace), trace);
+            trace.attribute("assignmentId", assignment.getAssignmentId());
             
             // Evaluate assignment
-            EvaluationResult result = evaluationEngine.evaluateAssignment(assignment);
-            result.setAssignment(assignment);
-            result.generateReport();
+            EvaluationResult result;
+            try (Span span = trace.span("grading")) {
+                result = evaluationEngine.evaluateAssignment(assignment);
+                result.setAssignment(assignment);
+                result.generateReport();
+            }
             
             // Save evaluation result
-            evaluationResultRepository.save(result);
+            try (Span span = trace.span("result_save")) {
+                evaluationResultRepository.save(result);
+            }
+            resultWritten(assignment, result);
             assignment.setEvaluationResult(result);
             
-            loggingService.logInfo("Assignment submitted and evaluated successfully", 
-                "StudentId: " + studentId + ", AssignmentId: " + assignment.getAssignmentId());
+            try (Span span = trace.span("logging")) {
+                loggingService.logInfo("Assignment submitted and evaluated successfully", 
+                    "StudentId: " + studentId + ", AssignmentId: " + assignment.getAssignmentId());
+            }
             
+            trace.finish("success");
             return assignment;
             
         } catch (Exception e) {
+            trace.finish("error");
             loggingService.logError("Failed to submit assignment", e.getMessage(), 
                 "StudentId: " + studentId + ", Title: " + title);
             throw new RuntimeException("Failed to submit assignment: " + e.getMessage());
         }
     }
     
-    public List<Assignment> getStudentAssignments(String studentId) {
-        return assignmentRepository.findByStudent_StudentId(studentId);
+    // Persists the submission with a QUEUED result and hands grading to the job queue or the local grader pool
+    public Assignment acceptAssignment(String studentId, String title, String codeContent, LocalDateTime deadline, String assignmentType) {
+        boolean durable = isJobDispatch();
+        if (durable) {
+            gradingJobQueue.checkCapacity(gradingQueue.getRetryAfterSeconds());
+        } else {
+            gradingQueue.reserve();
+        }
+        
+        // One trace covers acceptance and, for local grading, the wait for a grader and grading itself
+        Trace trace = tracer.start("submit_async").attribute("studentId", studentId);
+        Assignment assignment;
+        EvaluationResult pending;
+        try {
+            Assignment submission = newSubmission(studentId, title, codeContent, deadline, assignmentType, trace);
+            EvaluationResult placeholder = new EvaluationResult(0.0, "Queued for evaluation", false);
+            placeholder.setStatus(EvaluationStatus.QUEUED);
+            
+            // The assignment, its QUEUED result and its job are written together, so a failure leaves
+            // neither a submission without a result nor a result waiting on a job that does not exist
+            pending = transactionTemplate.execute(status -> {
+                Assignment saved = saveAssignment(submission, trace);
+                placeholder.setAssignment(saved);
+                try (Span span = trace.span("result_save")) {
+                    EvaluationResult result = evaluationResultRepository.save(placeholder);
+                    if (durable) {
+                        gradingJobQueue.enqueue(saved.getAssignmentId());
+                    }
+                    return result;
+                }
+            });
+            assignment = pending.getAssignment();
+            trace.attribute("assignmentId", assignment.getAssignmentId());
+            resultWritten(assignment, pending);
+            assignment.setEvaluationResult(pending);
+        } catch (Exception e) {
+            if (!durable) {
+                gradingQueue.release();
+            }
+            trace.finish("error");
+            loggingService.logError("Failed to submit assignment", e.getMessage(),
+                "StudentId: " + studentId + ", Title: " + title);
+            throw new RuntimeException("Failed to submit assignment: " + e.getMessage());
+        }
+        
+        if (durable) {
+            trace.finish("queued");
+            loggingService.logInfo("Assignment submitted and queued for evaluation",
+                "StudentId: " + studentId + ", AssignmentId: " + assignment.getAssignmentId());
+            return assignment;
+        }
+        
+        final Assignment queued = assignment;
+        final EvaluationResult placeholder = pending;
+        final Span queueWait = trace.span("queue_wait");
+        gradingQueue.submit(() -> gradeQueued(queued, placeholder, trace, queueWait));
+        
+        loggingService.logInfo("Assignment submitted and queued for evaluation",
+            "StudentId: " + studentId + ", AssignmentId: " + assignment.getAssignmentId());
+        
+        return assignment;
+    }
+    
+    private void gradeQueued(Assignment assignment, EvaluationResult placeholder, Trace trace, Span queueWait) {
+        queueWait.close();
+        try {
+            grade(assignment, placeholder, trace);
+            trace.finish("success");
+            
+        } catch (Exception e) {
+            trace.finish("error");
+            failResult(assignment, placeholder, "Evaluation failed: " + e.getMessage(), e);
+        }
+    }
+    
+    // Grades one claimed job. Failures propagate so the job queue can retry it on any node.
+    public void gradeJob(Long assignmentId) {
+        Trace trace = tracer.start("grade_job").attribute("assignmentId", assignmentId);
+        try {
+            Assignment assignment;
+            try (Span span = trace.span("assignment_load")) {
+                assignment = assignmentRepository.findWithResultByAssignmentId(assignmentId)
+                    .orElseThrow(() -> new IllegalStateException("Assignment " + assignmentId + " no longer exists"));
+            }
+            EvaluationResult placeholder = assignment.getEvaluationResult();
+            if (placeholder == null) {
+                placeholder = new EvaluationResult(0.0, "Queued for evaluation", false);
+                placeholder.setAssignment(assignment);
+            } else if (placeholder.getStatus() == EvaluationStatus.DONE) {
+                // A previous lease holder saved the result but died before completing the job
+                trace.finish("skipped");
+                return;
+            }
+            grade(assignment, placeholder, trace);
+            trace.finish("success");
+        } catch (RuntimeException e) {
+            trace.finish("error");
+            throw e;
+        }
+    }
+    
+    // Final failure of a job that used up its attempts. Returns false when a previous lease
+    // holder already saved the finished result, which then stands and the job counts as done.
+    public boolean failJob(Long assignmentId, String reason) {
+        Assignment assignment = assignmentRepository.findWithResultByAssignmentId(assignmentId).orElse(null);
+        if (assignment == null) {
+            return true;
+        }
+        EvaluationResult placeholder = assignment.getEvaluationResult();
+        if (placeholder == null) {
+            placeholder = new EvaluationResult(0.0, reason, false);
+            placeholder.setAssignment(assignment);
+        } else if (placeholder.getStatus() == EvaluationStatus.DONE) {
+            return false;
+        }
+        failResult(assignment, placeholder, "Evaluation failed: " + reason, null);
+        return true;
+    }
+    
+    private void grade(Assignment assignment, EvaluationResult placeholder, Trace trace) {
+        placeholder.setStatus(EvaluationStatus.RUNNING);
+        placeholder.setRemarks("Evaluation in progress");
+        try (Span span = trace.span("status_save")) {
+            evaluationResultRepository.save(placeholder);
+        }
+        resultWritten(assignment, placeholder);
+        
+        EvaluationResult result;
+        try (Span span = trace.span("grading")) {
+            result = evaluationEngine.evaluateAssignment(assignment);
+            result.generateReport();
+        }
+        
+        placeholder.setScore(result.getScore());
+        placeholder.setRemarks(result.getRemarks());
+        placeholder.setPassed(result.isPassed());
+        placeholder.setDetailedFeedback(result.getDetailedFeedback());
+        placeholder.setTestOutcomes(result.getTestOutcomes());
+        placeholder.setTimestamp(result.getTimestamp());
+        placeholder.setStatus(EvaluationStatus.DONE);
+        try (Span span = trace.span("result_save")) {
+            evaluationResultRepository.save(placeholder);
+        }
+        resultWritten(assignment, placeholder);
+        
+        try (Span span = trace.span("logging")) {
+            loggingService.logInfo("Assignment evaluated successfully",
+                "AssignmentId: " + assignment.getAssignmentId());
+        }
+    }
+    
+    private void failResult(Assignment assignment, EvaluationResult placeholder, String remarks, Exception cause) {
+        placeholder.setStatus(EvaluationStatus.FAILED);
+        placeholder.setRemarks(remarks);
+        placeholder.setTimestamp(LocalDateTime.now());
+        try {
+            evaluationResultRepository.save(placeholder);
+        } catch (RuntimeException saveError) {
+            if (cause == null) {
+                throw saveError;
+            }
+            cause.addSuppressed(saveError);
+        }
+        resultWritten(assignment, placeholder);
+        loggingService.logError("Failed to evaluate assignment", remarks,
+            "AssignmentId: " + assignment.getAssignmentId());
+    }
+    
+    private boolean isJobDispatch() {
+        return "jobs".equalsIgnoreCase(dispatch);
+    }
+    
+    // Every result write evicts the cached lookups and notifies open result streams
+    private void resultWritten(Assignment assignment, EvaluationResult result) {
+        String studentId = assignment.getStudent() != null ? assignment.getStudent().getStudentId() : null;
+        cacheInvalidator.resultWritten(assignment.getAssignmentId(), studentId);
+        resultEventBus.publish(new ResultEvent(assignment.getAssignmentId(), studentId,
+            assignment.getAssignmentType(), result));
+    }
+    
+    // Builds the assignment row for a submission; the student and the source blob are stored here
+    // because both are idempotent, the assignment itself only by saveAssignment
+    private Assignment newSubmission(String studentId, String title, String codeContent, LocalDateTime deadline,
+                                     String assignmentType, Trace trace) {
+        // Find or create student
+        Student student;
+        try (Span span = trace.span("student_upsert")) {
+            student = studentService.ensureStudent(studentId);
+        }
+        
+        // Source goes to the content-addressed store; the row only keeps its hash and location
+        String sourceHash;
+        try (Span span = trace.span("source_store")) {
+            sourceHash = sourceBlobStore.put(codeContent);
+        }
+        
+        // Create assignment
+        Assignment assignment = new Assignment(title, sourceBlobStore.relativePath(sourceHash), deadline, codeContent);
+        assignment.setSourceHash(sourceHash);
+        assignment.setStudent(student);
+        
+        // An explicit type wins; otherwise it is detected once here and stored with the submission
+        assignment.setAssignmentType(assignmentType);
+        assignment.setAssignmentType(evaluationEngine.getTypeRegistry().resolve(assignment));
+        return assignment;
+    }
+    
+    private Assignment saveAssignment(Assignment assignment, Trace trace) {
+        Assignment saved;
+        try (Span span = trace.span("assignment_save")) {
+            saved = assignmentRepository.save(assignment);
+        }
+        
+        // MinHash signature for near-duplicate detection across the title's submissions, written once the
+        // assignment is committed so a rolled-back submission leaves no signature behind
+        try (Span span = trace.span("similarity_index")) {
+            similarityService.index(saved);
+        }
+        return saved;
+    }
+    
+    // Newest first; pass the last assignmentId of a page as beforeId to get the next one
+    public List<AssignmentSummary> getStudentAssignments(String studentId, Long beforeId, int limit, boolean includeCode) {
+        PageRequest page = PageRequest.of(0, clampPageSize(limit));
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        if (!includeCode) {
+            return assignmentRepository.findSummariesByStudentBefore(studentId, before, page);
+        }
+        List<AssignmentSummary> summaries = assignmentRepository.findSummariesWithCodeByStudentBefore(studentId, before, page);
+        summaries.replaceAll(summary -> summary.getSourceHash() != null
+            ? summary.withCodeContent(sourceBlobStore.get(summary.getSourceHash()))
+            : summary);
+        return summaries;
+    }
+    
+    // Only the first page as the dashboard requests it is cached; writes evict it per student.
+    // Eviction only reaches this node's cache, so pages with results still in progress are not cached.
+    @Cacheable(cacheNames = CacheConfig.STUDENT_RESULTS, key = "#studentId",
+               condition = "#beforeId == null && #limit == 50 && !#includeFeedback",
+               unless = "#result.?[!status.terminal].size() > 0")
+    public List<ResultSummary> getStudentResults(String studentId, Long beforeId, int limit, boolean includeFeedback) {
+        PageRequest page = PageRequest.of(0, clampPageSize(limit));
+        long before = beforeId != null ? beforeId : Long.MAX_VALUE;
+        return includeFeedback
+            ? evaluationResultRepository.findSummariesWithFeedbackByStudentBefore(studentId, before, page)
+            : evaluationResultRepository.findSummariesByStudentBefore(studentId, before, page);
     }
     
-    public List<EvaluationResult> getStudentResults(String studentId) {
-        return evaluationResultRepository.findByAssignment_Student_StudentId(studentId);
+    private static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
     
     public Optional<Assignment> getAssignment(Long assignmentId) {
-        return assignmentRepository.findById(assignmentId);
+        return assignmentRepository.findWithResultByAssignmentId(assignmentId);
     }
     
+    // Polled every second by clients waiting for a queued evaluation. Only final results are
+    // cached: another node may finish the grading, and its eviction never reaches this cache.
+    @Cacheable(cacheNames = CacheConfig.RESULTS_BY_ASSIGNMENT, key = "#assignmentId",
+               unless = "#result == null || !#result.status.terminal")
     public Optional<EvaluationResult> getEvaluationResult(Long assignmentId) {
         return Optional.ofNullable(evaluationResultRepository.findByAssignment_AssignmentId(assignmentId));
     }
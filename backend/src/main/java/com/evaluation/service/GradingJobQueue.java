@@ -0,0 +1,247 @@
+package com.evaluation.service;
+
+import com.evaluation.model.GradingJobStatus;
+import com.evaluation.repository.GradingJobRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Durable grading queue in the grading_jobs table. Any number of worker nodes claim jobs
+// concurrently with SELECT ... FOR UPDATE SKIP LOCKED, so a job is handed to exactly one of
+// them and claimers never wait on each other's locks. A claimed job carries a lease that the
+// worker keeps extending; when a worker dies the lease runs out and the job is claimed again.
+@Service
+public class GradingJobQueue {
+
+    private static final String ENQUEUE_SQL =
+        "INSERT INTO grading_jobs (assignment_id, status, attempts, available_at, created_at, updated_at) " +
+        "VALUES (?, 'PENDING', 0, NOW(6), NOW(6), NOW(6))";
+
+    private static final String SELECT_PENDING_SQL =
+        "SELECT job_id, assignment_id, attempts FROM grading_jobs " +
+        "WHERE status = 'PENDING' AND available_at <= NOW(6) " +
+        "ORDER BY available_at, job_id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SELECT_EXPIRED_SQL =
+        "SELECT job_id, assignment_id, attempts FROM grading_jobs " +
+        "WHERE status = 'RUNNING' AND lease_expires_at < NOW(6) " +
+        "ORDER BY lease_expires_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String CLAIM_SQL =
+        "UPDATE grading_jobs SET status = 'RUNNING', lease_owner = ?, " +
+        "lease_expires_at = TIMESTAMPADD(MICROSECOND, ?, NOW(6)), attempts = attempts + 1, updated_at = NOW(6) " +
+        "WHERE job_id = ?";
+
+    private static final String HEARTBEAT_SQL =
+        "UPDATE grading_jobs SET lease_expires_at = TIMESTAMPADD(MICROSECOND, ?, NOW(6)) " +
+        "WHERE job_id = ? AND lease_owner = ? AND status = 'RUNNING'";
+
+    private static final String COMPLETE_SQL =
+        "UPDATE grading_jobs SET status = 'DONE', lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW(6) " +
+        "WHERE job_id = ? AND lease_owner = ?";
+
+    private static final String RETRY_SQL =
+        "UPDATE grading_jobs SET status = 'PENDING', lease_owner = NULL, lease_expires_at = NULL, " +
+        "available_at = TIMESTAMPADD(MICROSECOND, ?, NOW(6)), last_error = ?, updated_at = NOW(6) " +
+        "WHERE job_id = ? AND lease_owner = ?";
+
+    private static final String FAIL_SQL =
+        "UPDATE grading_jobs SET status = 'FAILED', lease_owner = NULL, lease_expires_at = NULL, " +
+        "last_error = ?, updated_at = NOW(6) WHERE job_id = ?";
+
+    // The lease holder gives up on its job; a worker whose lease expired must not fail a job
+    // that another worker has claimed since
+    private static final String FAIL_OWNED_SQL =
+        "UPDATE grading_jobs SET status = 'FAILED', lease_owner = NULL, lease_expires_at = NULL, " +
+        "last_error = ?, updated_at = NOW(6) WHERE job_id = ? AND lease_owner = ?";
+
+    // Jobs whose result was saved by an earlier attempt are closed as DONE whatever their state
+    private static final String MARK_DONE_SQL =
+        "UPDATE grading_jobs SET status = 'DONE', lease_owner = NULL, lease_expires_at = NULL, updated_at = NOW(6) " +
+        "WHERE job_id = ?";
+
+    // A clean shutdown hands unfinished jobs back without spending an attempt
+    private static final String RELEASE_SQL =
+        "UPDATE grading_jobs SET status = 'PENDING', lease_owner = NULL, lease_expires_at = NULL, " +
+        "attempts = GREATEST(attempts - 1, 0), updated_at = NOW(6) WHERE job_id = ? AND lease_owner = ? AND status = 'RUNNING'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private GradingJobRepository gradingJobRepository;
+
+    private final long leaseMillis;
+    private final long retryBackoffMillis;
+    private final int maxAttempts;
+    private final long maxPending;
+    private final long pendingCountTtlNanos = 1_000_000_000L;
+    private volatile long pendingCount;
+    private volatile long pendingCountAt = Long.MIN_VALUE;
+    private volatile Runnable enqueueListener = () -> {};
+
+    public GradingJobQueue(@Value("${evaluation.grading.jobs.lease-millis:60000}") long leaseMillis,
+                           @Value("${evaluation.grading.jobs.retry-backoff-millis:5000}") long retryBackoffMillis,
+                           @Value("${evaluation.grading.jobs.max-attempts:3}") int maxAttempts,
+                           @Value("${evaluation.grading.jobs.max-pending:5000}") long maxPending) {
+        this.leaseMillis = leaseMillis;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        this.maxPending = maxPending;
+    }
+
+    // Rejects new submissions while the backlog is full; the count is refreshed at most once a second
+    public void checkCapacity(long retryAfterSeconds) {
+        long now = System.nanoTime();
+        if (now - pendingCountAt > pendingCountTtlNanos) {
+            pendingCount = gradingJobRepository.countByStatus(GradingJobStatus.PENDING);
+            pendingCountAt = now;
+        }
+        if (pendingCount >= maxPending) {
+            throw new GradingQueueFullException(retryAfterSeconds);
+        }
+    }
+
+    // Inside a transaction the listener only runs once the job row is committed and claimable
+    public void enqueue(Long assignmentId) {
+        jdbcTemplate.update(ENQUEUE_SQL, assignmentId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueueListener.run();
+                }
+            });
+        } else {
+            enqueueListener.run();
+        }
+    }
+
+    // Called after every enqueue on this node, so a local worker can skip its poll delay
+    public void setEnqueueListener(Runnable enqueueListener) {
+        this.enqueueListener = enqueueListener;
+    }
+
+    // Claims up to limit jobs for owner. Jobs that already used every attempt are marked FAILED
+    // instead and returned separately, so the caller can fail their results.
+    public ClaimBatch claim(String owner, int limit) {
+        return transactionTemplate.execute(status -> {
+            List<ClaimedJob> candidates = new ArrayList<>(jdbcTemplate.query(SELECT_PENDING_SQL,
+                (rs, row) -> new ClaimedJob(rs.getLong(1), rs.getLong(2), rs.getInt(3)), limit));
+            if (candidates.size() < limit) {
+                candidates.addAll(jdbcTemplate.query(SELECT_EXPIRED_SQL,
+                    (rs, row) -> new ClaimedJob(rs.getLong(1), rs.getLong(2), rs.getInt(3)), limit - candidates.size()));
+            }
+
+            List<ClaimedJob> claimed = new ArrayList<>();
+            List<ClaimedJob> exhausted = new ArrayList<>();
+            for (ClaimedJob job : candidates) {
+                (job.getAttempts() >= maxAttempts ? exhausted : claimed).add(job);
+            }
+            if (!claimed.isEmpty()) {
+                jdbcTemplate.batchUpdate(CLAIM_SQL, claimed.stream()
+                    .map(job -> new Object[] {owner, leaseMillis * 1000L, job.getJobId()})
+                    .collect(Collectors.toList()));
+            }
+            if (!exhausted.isEmpty()) {
+                jdbcTemplate.batchUpdate(FAIL_SQL, exhausted.stream()
+                    .map(job -> new Object[] {"Abandoned after " + job.getAttempts() + " attempts", job.getJobId()})
+                    .collect(Collectors.toList()));
+            }
+            return new ClaimBatch(claimed, exhausted);
+        });
+    }
+
+    public void heartbeat(String owner, Collection<ClaimedJob> jobs) {
+        if (!jobs.isEmpty()) {
+            jdbcTemplate.batchUpdate(HEARTBEAT_SQL, jobs.stream()
+                .map(job -> new Object[] {leaseMillis * 1000L, job.getJobId(), owner})
+                .collect(Collectors.toList()));
+        }
+    }
+
+    // False when the lease was lost and another worker owns the job now
+    public boolean complete(String owner, ClaimedJob job) {
+        return jdbcTemplate.update(COMPLETE_SQL, job.getJobId(), owner) > 0;
+    }
+
+    public void markDone(ClaimedJob job) {
+        jdbcTemplate.update(MARK_DONE_SQL, job.getJobId());
+    }
+
+    // Schedules another attempt with exponential backoff
+    public RetryOutcome retry(String owner, ClaimedJob job, String error) {
+        int attempt = job.getAttempts() + 1;
+        if (attempt >= maxAttempts) {
+            return jdbcTemplate.update(FAIL_OWNED_SQL, error, job.getJobId(), owner) > 0
+                ? RetryOutcome.FAILED : RetryOutcome.LEASE_LOST;
+        }
+        long backoffMicros = retryBackoffMillis * 1000L << Math.min(attempt - 1, 10);
+        return jdbcTemplate.update(RETRY_SQL, backoffMicros, error, job.getJobId(), owner) > 0
+            ? RetryOutcome.RETRYING : RetryOutcome.LEASE_LOST;
+    }
+
+    public void release(String owner, Collection<ClaimedJob> jobs) {
+        if (!jobs.isEmpty()) {
+            jdbcTemplate.batchUpdate(RELEASE_SQL, jobs.stream()
+                .map(job -> new Object[] {job.getJobId(), owner})
+                .collect(Collectors.toList()));
+        }
+    }
+
+    public long countByStatus(GradingJobStatus status) {
+        return gradingJobRepository.countByStatus(status);
+    }
+
+    public long getLeaseMillis() { return leaseMillis; }
+    public int getMaxAttempts() { return maxAttempts; }
+
+    public enum RetryOutcome {
+        RETRYING,
+        // No attempts left; the job is FAILED
+        FAILED,
+        // Another worker owns the job now and decides its fate
+        LEASE_LOST
+    }
+
+    public static class ClaimedJob {
+        private final long jobId;
+        private final long assignmentId;
+        // Attempts before this claim
+        private final int attempts;
+
+        ClaimedJob(long jobId, long assignmentId, int attempts) {
+            this.jobId = jobId;
+            this.assignmentId = assignmentId;
+            this.attempts = attempts;
+        }
+
+        public long getJobId() { return jobId; }
+        public long getAssignmentId() { return assignmentId; }
+        public int getAttempts() { return attempts; }
+    }
+
+    public static class ClaimBatch {
+        private final List<ClaimedJob> claimed;
+        private final List<ClaimedJob> exhausted;
+
+        ClaimBatch(List<ClaimedJob> claimed, List<ClaimedJob> exhausted) {
+            this.claimed = claimed;
+            this.exhausted = exhausted;
+        }
+
+        public List<ClaimedJob> getClaimed() { return claimed; }
+        public List<ClaimedJob> getExhausted() { return exhausted; }
+    }
+}
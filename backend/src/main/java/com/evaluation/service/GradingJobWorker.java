@@ -0,0 +1,205 @@
+package com.evaluation.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Pulls jobs from the durable grading queue into this node's grader pool. It only claims as many
+// jobs as there are idle graders, so work stays in the table, visible to every other worker,
+// until some node can actually start it. Leases of running jobs are extended by a heartbeat.
+@Component
+public class GradingJobWorker {
+
+    @Autowired
+    private GradingJobQueue gradingJobQueue;
+
+    @Autowired
+    private GradingQueue gradingQueue;
+
+    @Autowired
+    private EvaluationService evaluationService;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final String nodeId;
+    private final boolean enabled;
+    private final long pollIntervalNanos;
+    private final long heartbeatNanos;
+    private final long shutdownGraceSeconds;
+    private final Map<Long, GradingJobQueue.ClaimedJob> inProgress = new ConcurrentHashMap<>();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running;
+    private volatile Thread poller;
+
+    public GradingJobWorker(@Value("${evaluation.node.id:}") String nodeId,
+                            @Value("${evaluation.node.role:all}") String role,
+                            @Value("${evaluation.grading.dispatch:jobs}") String dispatch,
+                            @Value("${evaluation.grading.jobs.poll-interval-millis:500}") long pollIntervalMillis,
+                            @Value("${evaluation.grading.jobs.heartbeat-millis:15000}") long heartbeatMillis,
+                            @Value("${evaluation.grading.jobs.shutdown-grace-seconds:25}") long shutdownGraceSeconds) {
+        this.nodeId = nodeId.isEmpty() ? defaultNodeId() : nodeId;
+        this.enabled = "jobs".equalsIgnoreCase(dispatch) && !"api".equalsIgnoreCase(role);
+        this.pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMillis);
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        this.shutdownGraceSeconds = shutdownGraceSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        // Not a daemon: on a worker node without a web server this thread keeps the process alive
+        Thread thread = new Thread(this::pollLoop, "grading-job-poller");
+        poller = thread;
+        gradingJobQueue.setEnqueueListener(() -> LockSupport.unpark(thread));
+        thread.start();
+        loggingService.logInfo("Grading job worker started", "NodeId: " + nodeId);
+    }
+
+    private void pollLoop() {
+        long nextHeartbeat = System.nanoTime() + heartbeatNanos;
+        while (running) {
+            try {
+                if (System.nanoTime() - nextHeartbeat >= 0) {
+                    gradingJobQueue.heartbeat(nodeId, new ArrayList<>(inProgress.values()));
+                    nextHeartbeat = System.nanoTime() + heartbeatNanos;
+                }
+                int idle = gradingQueue.getPoolSize() - gradingQueue.getActiveGraders() - gradingQueue.getQueueDepth();
+                if (idle > 0) {
+                    GradingJobQueue.ClaimBatch batch = gradingJobQueue.claim(nodeId, idle);
+                    for (GradingJobQueue.ClaimedJob job : batch.getExhausted()) {
+                        abandon(job, "abandoned after " + job.getAttempts() + " attempts");
+                    }
+                    for (GradingJobQueue.ClaimedJob job : batch.getClaimed()) {
+                        dispatch(job);
+                    }
+                }
+            } catch (Exception e) {
+                loggingService.logError("Grading job poll failed", e.getMessage(), "NodeId: " + nodeId);
+            }
+            // Woken early by a local enqueue or by a grader finishing
+            LockSupport.parkNanos(this, Math.min(pollIntervalNanos, Math.max(0, nextHeartbeat - System.nanoTime())));
+        }
+    }
+
+    private void dispatch(GradingJobQueue.ClaimedJob job) {
+        claimed.incrementAndGet();
+        inProgress.put(job.getJobId(), job);
+        try {
+            gradingQueue.reserve();
+            gradingQueue.submit(() -> process(job));
+        } catch (GradingQueueFullException e) {
+            // Local submissions filled the pool in the meantime; let another node take the job
+            inProgress.remove(job.getJobId());
+            gradingJobQueue.release(nodeId, List.of(job));
+        }
+    }
+
+    private void process(GradingJobQueue.ClaimedJob job) {
+        try {
+            evaluationService.gradeJob(job.getAssignmentId());
+            completed.incrementAndGet();
+            if (!gradingJobQueue.complete(nodeId, job)) {
+                loggingService.logInfo("Grading job lease was lost before completion",
+                    "JobId: " + job.getJobId() + ", NodeId: " + nodeId);
+            }
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            try {
+                switch (gradingJobQueue.retry(nodeId, job, error)) {
+                    case RETRYING:
+                        retried.incrementAndGet();
+                        break;
+                    case FAILED:
+                        abandon(job, error);
+                        break;
+                    default:
+                        loggingService.logInfo("Grading job lease was lost before it could be rescheduled",
+                            "JobId: " + job.getJobId() + ", NodeId: " + nodeId);
+                }
+            } catch (Exception retryError) {
+                // The lease runs out and another worker picks the job up again
+                loggingService.logError("Failed to reschedule grading job", retryError.getMessage(),
+                    "JobId: " + job.getJobId() + ", NodeId: " + nodeId);
+            }
+        } finally {
+            inProgress.remove(job.getJobId());
+            Thread thread = poller;
+            if (thread != null) {
+                LockSupport.unpark(thread);
+            }
+        }
+    }
+
+    // The queue has already marked the job FAILED; it is closed as DONE instead when an earlier
+    // attempt saved the result but lost its lease before completing the job
+    private void abandon(GradingJobQueue.ClaimedJob job, String reason) {
+        if (evaluationService.failJob(job.getAssignmentId(), reason)) {
+            failed.incrementAndGet();
+        } else {
+            gradingJobQueue.markDone(job);
+            completed.incrementAndGet();
+        }
+    }
+
+    // Lets running jobs finish, then hands the rest back so other workers need not wait for the leases to expire
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = poller;
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.NANOSECONDS.toMillis(pollIntervalNanos) + 5000);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownGraceSeconds);
+            while (!inProgress.isEmpty() && System.nanoTime() - deadline < 0) {
+                Thread.sleep(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            gradingJobQueue.release(nodeId, new ArrayList<>(inProgress.values()));
+        } catch (Exception e) {
+            loggingService.logError("Failed to release grading jobs", e.getMessage(), "NodeId: " + nodeId);
+        }
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + ProcessHandle.current().pid() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String getNodeId() { return nodeId; }
+    public boolean isEnabled() { return enabled; }
+    public int getInProgress() { return inProgress.size(); }
+    public long getClaimed() { return claimed.get(); }
+    public long getCompleted() { return completed.get(); }
+    public long getRetried() { return retried.get(); }
+    public long getFailed() { return failed.get(); }
+}
@@ -0,0 +1,104 @@
+package com.evaluation.service;
+
+import com.evaluation.concurrent.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounded work queue feeding the grader pool. Capacity is reserved before a submission is
+// persisted so a full queue is reported to the client instead of accepting work that cannot run.
+// With virtual threads every accepted submission gets its own grader; the CPU-bound stages are
+// then limited inside the engine rather than by the size of this pool.
+@Component
+public class GradingQueue {
+
+    private final ExecutorService graderPool;
+    private final Semaphore capacity;
+    private final int threads;
+    private final int queueCapacity;
+    private final long retryAfterSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+
+    public GradingQueue(@Value("${evaluation.grading.threads:4}") int threads,
+                        @Value("${evaluation.grading.queue-capacity:500}") int queueCapacity,
+                        @Value("${evaluation.grading.retry-after-seconds:5}") long retryAfterSeconds,
+                        @Value("${evaluation.threads.virtual:false}") boolean virtualThreads) {
+        this.queueCapacity = queueCapacity;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // In-flight plus waiting work is bounded by the semaphore, so the executor queue itself never grows past it
+        this.capacity = new Semaphore(queueCapacity);
+        if (VirtualThreads.enabled(virtualThreads)) {
+            this.threads = queueCapacity;
+            this.graderPool = VirtualThreads.newThreadPerTaskExecutor("grader-");
+        } else {
+            this.threads = threads;
+            this.graderPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), new GraderThreadFactory());
+        }
+    }
+
+    // Reserve a slot; callers must either submit() or release() exactly once afterwards
+    public void reserve() {
+        if (!capacity.tryAcquire()) {
+            throw new GradingQueueFullException(retryAfterSeconds);
+        }
+    }
+
+    public void release() {
+        capacity.release();
+    }
+
+    public void submit(Runnable task) {
+        waiting.incrementAndGet();
+        try {
+            graderPool.execute(() -> {
+                waiting.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    capacity.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            capacity.release();
+            throw new GradingQueueFullException(retryAfterSeconds);
+        }
+    }
+
+    public int getQueueDepth() { return waiting.get(); }
+    public int getActiveGraders() { return active.get(); }
+    public int getPoolSize() { return threads; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+    public int getAvailableCapacity() { return capacity.availablePermits(); }
+
+    @PreDestroy
+    public void shutdown() {
+        graderPool.shutdown();
+        try {
+            if (!graderPool.awaitTermination(30, TimeUnit.SECONDS)) {
+                graderPool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            graderPool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class GraderThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "grader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
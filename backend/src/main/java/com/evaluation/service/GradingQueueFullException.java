@@ -0,0 +1,13 @@
+package com.evaluation.service;
+
+public class GradingQueueFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public GradingQueueFullException(long retryAfterSeconds) {
+        super("Grading queue is full, retry in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
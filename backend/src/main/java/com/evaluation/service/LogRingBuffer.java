@@ -0,0 +1,74 @@
+package com.evaluation.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded lock-free multi-producer queue (sequence-per-slot ring, after Vyukov).
+// Producers never block each other; a full buffer is reported to the caller instead.
+class LogRingBuffer<E> {
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    LogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = enqueuePosition.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            position = enqueuePosition.get();
+        }
+        slots.set(index, element);
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    E poll() {
+        long position = dequeuePosition.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+            position = dequeuePosition.get();
+        }
+        E element = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, position + mask + 1);
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0, enqueuePosition.get() - dequeuePosition.get());
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
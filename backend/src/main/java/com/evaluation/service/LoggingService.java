@@ -1,93 +1,371 @@
 package com.evaluation.service;
 
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.document.BatchWriteItemOutcome;
 import com.amazonaws.services.dynamodbv2.document.DynamoDB;
 import com.amazonaws.services.dynamodbv2.document.Item;
 import com.amazonaws.services.dynamodbv2.document.Table;
+import com.amazonaws.services.dynamodbv2.document.TableWriteItems;
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.evaluation.concurrent.VirtualThreads;
+import com.evaluation.metrics.MetricsRegistry;
+import com.evaluation.metrics.Timer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
+// Log calls only enqueue a record; a background flusher writes them to DynamoDB with
+// BatchWriteItem and spills to a local file when DynamoDB cannot be reached.
 @Service
 public class LoggingService {
 
-    private final DynamoDB dynamoDB;
-    private final Table errorLogTable;
-    private final Table infoLogTable;
+    public enum OverflowPolicy {
+        DROP,
+        BLOCK
+    }
+
+    private static final String ERROR_TABLE = "ErrorLogs";
+    private static final String INFO_TABLE = "InfoLogs";
+    private static final int MAX_BATCH_ITEMS = 25; // DynamoDB BatchWriteItem limit
+    private static final int MAX_UNPROCESSED_RETRIES = 5;
+    private static final long MAX_CONNECT_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final String region;
+    private final String endpoint;
+    private final boolean createTables;
+    // Only touched by the flusher thread, which connects before its first flush and keeps
+    // retrying with backoff while DynamoDB cannot be reached
+    private DynamoDB dynamoDB;
+    private Table errorLogTable;
+    private Table infoLogTable;
+    private int connectFailures;
+    private long nextConnectAt;
+
+    private final LogRingBuffer<LogRecord> buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutNanos;
+    private final long flushIntervalNanos;
+    private final long retryBackoffMillis;
+    private final Path spillFile;
+    private final MetricsRegistry metrics;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private volatile boolean running = true;
+    private volatile long dynamoUnavailableUntil;
+    private Thread flusher;
+
+    @Value("${evaluation.threads.virtual:false}")
+    private boolean virtualThreads;
+
+    public LoggingService(@Value("${aws.region:us-east-1}") String region,
+                          @Value("${aws.dynamodb.endpoint:}") String endpoint,
+                          @Value("${aws.dynamodb.create-tables:false}") boolean createTables,
+                          @Value("${logging.async.buffer-size:8192}") int bufferSize,
+                          @Value("${logging.async.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                          @Value("${logging.async.block-timeout-millis:50}") long blockTimeoutMillis,
+                          @Value("${logging.async.flush-interval-millis:200}") long flushIntervalMillis,
+                          @Value("${logging.async.retry-backoff-millis:5000}") long retryBackoffMillis,
+                          @Value("${logging.async.spill-file:logs/dynamodb-spill.log}") String spillFile,
+                          MetricsRegistry metrics) {
+        this.region = region;
+        this.endpoint = endpoint;
+        this.createTables = createTables;
+        this.buffer = new LogRingBuffer<>(bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.spillFile = Paths.get(spillFile);
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    public void startFlusher() {
+        // A virtual flusher releases its carrier thread while blocked on DynamoDB batch writes
+        if (VirtualThreads.enabled(virtualThreads)) {
+            flusher = VirtualThreads.factory("log-flusher-").newThread(this::flushLoop);
+        } else {
+            flusher = new Thread(this::flushLoop, "log-flusher");
+            flusher.setDaemon(true);
+        }
+        flusher.start();
+    }
+
+    public void logError(String message, String error, String details) {
+        enqueue(new LogRecord("ERROR", message, error, details));
+    }
+
+    public void logInfo(String message, String details) {
+        enqueue(new LogRecord("INFO", message, "", details));
+    }
 
-    public LoggingService() {
-        DynamoDB tempDynamoDB = null;
-        Table tempErrorLogTable = null;
-        Table tempInfoLogTable = null;
+    private void enqueue(LogRecord record) {
+        if (buffer.offer(record)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK && running) {
+            long deadline = System.nanoTime() + blockTimeoutNanos;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(100_000);
+                if (buffer.offer(record)) {
+                    return;
+                }
+            }
+        }
+        dropped.incrementAndGet();
+    }
 
+    // Building the client loads the AWS SDK and resolves credentials and endpoints, and creating
+    // tables takes round trips; doing it here keeps both off the application startup path.
+    // Records logged in the meantime just wait in the buffer.
+    private void connect() {
+        long now = System.currentTimeMillis();
+        if (now < nextConnectAt) {
+            return;
+        }
         try {
-            AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard()
-                    .withRegion("us-east-1") // Configure your AWS region
-                    .build();
-            tempDynamoDB = new DynamoDB(client);
-            tempErrorLogTable = tempDynamoDB.getTable("ErrorLogs");
-            tempInfoLogTable = tempDynamoDB.getTable("InfoLogs");
+            AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard();
+            if (endpoint.isEmpty()) {
+                builder.withRegion(region);
+            } else {
+                // Local DynamoDB stand-in, e.g. the dynamodb service in docker-compose
+                builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region));
+            }
+            AmazonDynamoDB client = builder.build();
+            DynamoDB connected = new DynamoDB(client);
+            if (createTables) {
+                createTableIfMissing(client, ERROR_TABLE);
+                createTableIfMissing(client, INFO_TABLE);
+            }
+            errorLogTable = connected.getTable(ERROR_TABLE);
+            infoLogTable = connected.getTable(INFO_TABLE);
+            dynamoDB = connected;
+            if (connectFailures > 0) {
+                System.err.println("Connected to DynamoDB after " + connectFailures + " failed attempts");
+            }
         } catch (Exception e) {
-            // Fallback to local logging if DynamoDB is not available
-            System.err.println("DynamoDB not available, using local logging: " + e.getMessage());
-            // tempDynamoDB, tempErrorLogTable, tempInfoLogTable remain null
+            // Records go to the spill file until a later attempt succeeds; attempts back off exponentially
+            long backoff = Math.min(MAX_CONNECT_BACKOFF_MILLIS, retryBackoffMillis << Math.min(connectFailures, 10));
+            connectFailures++;
+            nextConnectAt = now + backoff;
+            System.err.println("DynamoDB not available, spilling logs to " + spillFile + " and retrying in " + backoff + " ms: " + e.getMessage());
         }
+    }
 
-        this.dynamoDB = tempDynamoDB;
-        this.errorLogTable = tempErrorLogTable;
-        this.infoLogTable = tempInfoLogTable;
+    private void flushLoop() {
+        List<LogRecord> batch = new ArrayList<>(MAX_BATCH_ITEMS);
+        while (running || buffer.size() > 0) {
+            if (dynamoDB == null && running) {
+                connect();
+            }
+            LogRecord record;
+            while (batch.size() < MAX_BATCH_ITEMS && (record = buffer.poll()) != null) {
+                batch.add(record);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
     }
 
-    public void logError(String message, String error, String details) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        String logId = UUID.randomUUID().toString();
+    private void flush(List<LogRecord> batch) {
+        // Not connected yet, or backing off after a failed write
+        if (dynamoDB == null || System.currentTimeMillis() < dynamoUnavailableUntil) {
+            spill(batch);
+            return;
+        }
 
-        if (errorLogTable != null) {
-            try {
-                Item item = new Item()
-                        .withPrimaryKey("logId", logId)
-                        .withString("timestamp", timestamp)
-                        .withString("level", "ERROR")
-                        .withString("message", message)
-                        .withString("error", error)
-                        .withString("details", details);
-
-                errorLogTable.putItem(item);
-            } catch (Exception e) {
-                System.err.println("Failed to log to DynamoDB: " + e.getMessage());
-                logToConsole("ERROR", message, error, details, timestamp);
+        try {
+            List<Item> errorItems = new ArrayList<>();
+            List<Item> infoItems = new ArrayList<>();
+            for (LogRecord record : batch) {
+                (record.isError() ? errorItems : infoItems).add(record.toItem());
             }
-        } else {
-            logToConsole("ERROR", message, error, details, timestamp);
+
+            List<TableWriteItems> writes = new ArrayList<>(2);
+            if (!errorItems.isEmpty()) {
+                writes.add(new TableWriteItems(errorLogTable.getTableName()).withItemsToPut(errorItems));
+            }
+            if (!infoItems.isEmpty()) {
+                writes.add(new TableWriteItems(infoLogTable.getTableName()).withItemsToPut(infoItems));
+            }
+
+            Timer writeTimer = metrics.timer("logging.dynamodb.batch_write");
+            long start = System.nanoTime();
+            BatchWriteItemOutcome outcome = dynamoDB.batchWriteItem(writes.toArray(new TableWriteItems[0]));
+            writeTimer.recordSince(start);
+            Map<String, List<WriteRequest>> unprocessed = outcome.getUnprocessedItems();
+            for (int attempt = 1; attempt <= MAX_UNPROCESSED_RETRIES && !unprocessed.isEmpty(); attempt++) {
+                // Throttled items are retried with exponential backoff
+                Thread.sleep(Math.min(1000L, 25L << attempt));
+                metrics.counter("logging.dynamodb.unprocessed_retries").increment();
+                start = System.nanoTime();
+                unprocessed = dynamoDB.batchWriteItemUnprocessed(unprocessed).getUnprocessedItems();
+                writeTimer.recordSince(start);
+            }
+
+            int failed = countRequests(unprocessed);
+            written.addAndGet(batch.size() - failed);
+            if (failed > 0) {
+                spillUnprocessed(unprocessed);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            spill(batch);
+        } catch (Exception e) {
+            metrics.counter("logging.dynamodb.failures").increment();
+            System.err.println("Failed to log to DynamoDB: " + e.getMessage());
+            dynamoUnavailableUntil = System.currentTimeMillis() + retryBackoffMillis;
+            spill(batch);
         }
     }
 
-    public void logInfo(String message, String details) {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-        String logId = UUID.randomUUID().toString();
+    private static int countRequests(Map<String, List<WriteRequest>> requests) {
+        int count = 0;
+        for (List<WriteRequest> tableRequests : requests.values()) {
+            count += tableRequests.size();
+        }
+        return count;
+    }
+
+    private void spillUnprocessed(Map<String, List<WriteRequest>> unprocessed) {
+        List<String> lines = new ArrayList<>();
+        for (List<WriteRequest> tableRequests : unprocessed.values()) {
+            for (WriteRequest request : tableRequests) {
+                Map<String, AttributeValue> item = request.getPutRequest().getItem();
+                lines.add(formatLine(value(item, "timestamp"), value(item, "level"), value(item, "message"),
+                    value(item, "error"), value(item, "details")));
+            }
+        }
+        writeSpill(lines);
+    }
+
+    private static String value(Map<String, AttributeValue> item, String name) {
+        AttributeValue attribute = item.get(name);
+        return attribute != null && attribute.getS() != null ? attribute.getS() : "";
+    }
+
+    private void spill(List<LogRecord> batch) {
+        List<String> lines = new ArrayList<>(batch.size());
+        for (LogRecord record : batch) {
+            lines.add(formatLine(record.formattedTimestamp(), record.level, record.message, record.error, record.details));
+        }
+        writeSpill(lines);
+    }
 
-        if (infoLogTable != null) {
+    private void writeSpill(List<String> lines) {
+        try {
+            if (spillFile.getParent() != null) {
+                Files.createDirectories(spillFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+            spilled.addAndGet(lines.size());
+        } catch (IOException e) {
+            // Last resort when even the local disk is unavailable
+            lines.forEach(System.out::println);
+        }
+    }
+
+    private static void createTableIfMissing(AmazonDynamoDB client, String tableName) {
+        try {
+            client.describeTable(tableName);
+        } catch (ResourceNotFoundException e) {
+            client.createTable(new CreateTableRequest()
+                    .withTableName(tableName)
+                    .withAttributeDefinitions(new AttributeDefinition("logId", ScalarAttributeType.S))
+                    .withKeySchema(new KeySchemaElement("logId", KeyType.HASH))
+                    .withBillingMode(BillingMode.PAY_PER_REQUEST));
+        }
+    }
+
+    // Drain everything still buffered before the application exits
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
             try {
-                Item item = new Item()
-                        .withPrimaryKey("logId", logId)
-                        .withString("timestamp", timestamp)
-                        .withString("level", "INFO")
-                        .withString("message", message)
-                        .withString("details", details);
-
-                infoLogTable.putItem(item);
-            } catch (Exception e) {
-                System.err.println("Failed to log to DynamoDB: " + e.getMessage());
-                logToConsole("INFO", message, "", details, timestamp);
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-        } else {
-            logToConsole("INFO", message, "", details, timestamp);
         }
     }
 
-    private void logToConsole(String level, String message, String error, String details, String timestamp) {
-        System.out.println(String.format("[%s] %s - %s | %s | %s", timestamp, level, message, error, details));
+    // Statistics
+    public long getDroppedCount() { return dropped.get(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getSpilledCount() { return spilled.get(); }
+    public int getBufferedCount() { return buffer.size(); }
+
+    private static String formatLine(String timestamp, String level, String message, String error, String details) {
+        return String.format("[%s] %s - %s | %s | %s", timestamp, level, message, error, details);
+    }
+
+    // Captured on the calling thread; ids and formatting are deferred to the flusher
+    private static final class LogRecord {
+        private final long epochMillis = System.currentTimeMillis();
+        private final String level;
+        private final String message;
+        private final String error;
+        private final String details;
+
+        LogRecord(String level, String message, String error, String details) {
+            this.level = level;
+            this.message = message != null ? message : "";
+            this.error = error != null ? error : "";
+            this.details = details != null ? details : "";
+        }
+
+        boolean isError() {
+            return "ERROR".equals(level);
+        }
+
+        String formattedTimestamp() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault())
+                    .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+
+        Item toItem() {
+            Item item = new Item()
+                    .withPrimaryKey("logId", UUID.randomUUID().toString())
+                    .withString("timestamp", formattedTimestamp())
+                    .withString("level", level)
+                    .withString("message", message)
+                    .withString("details", details);
+            if (isError()) {
+                item.withString("error", error);
+            }
+            return item;
+        }
     }
 }
\ No newline at end of file
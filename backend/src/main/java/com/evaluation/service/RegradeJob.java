@@ -0,0 +1,60 @@
+package com.evaluation.service;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of a bulk regrade, read by the status endpoint while the job is running
+public class RegradeJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final String title;
+    private final long total;
+    private final LocalDateTime startedAt;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    public RegradeJob(String jobId, String title, long total) {
+        this.jobId = jobId;
+        this.title = title;
+        this.total = total;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    void recordProcessed(long count) { processed.addAndGet(count); }
+    void recordFailed() { failed.incrementAndGet(); }
+
+    void complete() {
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.FAILED;
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getTitle() { return title; }
+    public long getTotal() { return total; }
+    public long getProcessed() { return processed.get(); }
+    public long getFailed() { return failed.get(); }
+    public State getState() { return state; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+
+    public double getPercentComplete() {
+        return total > 0 ? Math.min(100.0, processed.get() * 100.0 / total) : 100.0;
+    }
+}
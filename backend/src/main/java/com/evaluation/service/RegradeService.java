@@ -0,0 +1,199 @@
+package com.evaluation.service;
+
+import com.evaluation.cache.CacheInvalidator;
+import com.evaluation.dto.SubmissionSource;
+import com.evaluation.model.Assignment;
+import com.evaluation.model.EvaluationEngine;
+import com.evaluation.model.EvaluationResult;
+import com.evaluation.model.EvaluationStatus;
+import com.evaluation.repository.AssignmentRepository;
+import com.evaluation.stats.GradeStatsService;
+import com.evaluation.storage.SourceBlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Re-grades every submission of an assignment title. Submissions are streamed in keyset pages
+// so heap use is bounded by the page size, and results are written back in JDBC batches.
+@Service
+public class RegradeService {
+
+    // evaluation_results.assignment_id is unique (one-to-one), so each row is upserted in place
+    private static final String UPSERT_RESULT_SQL =
+        "INSERT INTO evaluation_results (assignment_id, score, remarks, passed, detailed_feedback, timestamp, status, test_outcomes) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE score = VALUES(score), remarks = VALUES(remarks), passed = VALUES(passed), " +
+        "detailed_feedback = VALUES(detailed_feedback), timestamp = VALUES(timestamp), status = VALUES(status), " +
+        "test_outcomes = VALUES(test_outcomes)";
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private EvaluationEngine evaluationEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private GradeStatsService gradeStatsService;
+
+    private final int pageSize;
+    private final ExecutorService coordinator;
+    private final ExecutorService graders;
+    private final Map<String, RegradeJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, RegradeJob> runningByTitle = new ConcurrentHashMap<>();
+
+    public RegradeService(@Value("${evaluation.regrade.threads:4}") int threads,
+                          @Value("${evaluation.regrade.page-size:500}") int pageSize) {
+        this.pageSize = pageSize;
+        this.coordinator = Executors.newSingleThreadExecutor(namedFactory("regrade-coordinator"));
+        this.graders = Executors.newFixedThreadPool(threads, namedFactory("regrade-grader"));
+    }
+
+    // Starting a regrade for a title that is already being regraded returns the running job
+    public RegradeJob startRegrade(String title) {
+        RegradeJob running = runningByTitle.get(title);
+        if (running != null) {
+            return running;
+        }
+
+        RegradeJob job = new RegradeJob(UUID.randomUUID().toString(), title, assignmentRepository.countByTitle(title));
+        RegradeJob existing = runningByTitle.putIfAbsent(title, job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getJobId(), job);
+        coordinator.execute(() -> run(job));
+
+        loggingService.logInfo("Regrade started", "Title: " + title + ", JobId: " + job.getJobId() + ", Total: " + job.getTotal());
+        return job;
+    }
+
+    public Optional<RegradeJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(RegradeJob job) {
+        try {
+            long afterId = 0L;
+            while (true) {
+                List<SubmissionSource> page = assignmentRepository.findSubmissionsByTitleAfter(
+                    job.getTitle(), afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                writeBatch(gradePage(job, page));
+                page.forEach(submission -> cacheInvalidator.resultWritten(submission.getAssignmentId(), submission.getStudentId()));
+                job.recordProcessed(page.size());
+                afterId = page.get(page.size() - 1).getAssignmentId();
+            }
+            job.complete();
+            loggingService.logInfo("Regrade completed", "Title: " + job.getTitle() + ", JobId: " + job.getJobId()
+                + ", Processed: " + job.getProcessed() + ", Failed: " + job.getFailed());
+
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            loggingService.logError("Regrade failed", e.getMessage(), "Title: " + job.getTitle() + ", JobId: " + job.getJobId());
+        } finally {
+            rebuildStats(job);
+            runningByTitle.remove(job.getTitle(), job);
+        }
+    }
+
+    // Regrading rewrites results in place, which incremental statistics cannot follow
+    private void rebuildStats(RegradeJob job) {
+        if (job.getProcessed() == 0) {
+            return;
+        }
+        try {
+            gradeStatsService.rebuild();
+        } catch (Exception e) {
+            loggingService.logError("Failed to rebuild grade statistics after regrade", e.getMessage(),
+                "Title: " + job.getTitle() + ", JobId: " + job.getJobId());
+        }
+    }
+
+    private List<Object[]> gradePage(RegradeJob job, List<SubmissionSource> page) throws InterruptedException {
+        List<Future<Object[]>> futures = new ArrayList<>(page.size());
+        for (SubmissionSource submission : page) {
+            futures.add(graders.submit(() -> grade(submission)));
+        }
+
+        List<Object[]> rows = new ArrayList<>(page.size());
+        for (Future<Object[]> future : futures) {
+            try {
+                rows.add(future.get());
+            } catch (ExecutionException e) {
+                job.recordFailed();
+            }
+        }
+        return rows;
+    }
+
+    private Object[] grade(SubmissionSource submission) {
+        Assignment assignment = new Assignment();
+        assignment.setAssignmentId(submission.getAssignmentId());
+        assignment.setTitle(submission.getTitle());
+        assignment.setCodeContent(submission.getSourceHash() != null
+            ? sourceBlobStore.get(submission.getSourceHash())
+            : submission.getCodeContent());
+        assignment.setAssignmentType(submission.getAssignmentType());
+
+        EvaluationResult result = evaluationEngine.evaluateAssignment(assignment);
+        result.generateReport();
+
+        return new Object[] {
+            submission.getAssignmentId(),
+            result.getScore(),
+            result.getRemarks(),
+            result.isPassed(),
+            result.getDetailedFeedback(),
+            Timestamp.valueOf(result.getTimestamp()),
+            EvaluationStatus.DONE.name(),
+            result.getTestOutcomes()
+        };
+    }
+
+    private void writeBatch(List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_RESULT_SQL, rows);
+        }
+    }
+
+    private static ThreadFactory namedFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        graders.shutdownNow();
+    }
+}
@@ -0,0 +1,153 @@
+package com.evaluation.service;
+
+import com.evaluation.dto.ResultExportRow;
+import com.evaluation.repository.EvaluationResultRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes every matching result to the response as it is read. Rows are DTO projections
+// streamed from a forward-only cursor, so nothing accumulates in the persistence context
+// and memory stays flat however many rows are exported.
+@Service
+public class ResultExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private static final String CSV_HEADER = "result_id,assignment_id,student_id,student_name,title,assignment_type," +
+        "submission_time,deadline,late,score,passed,status,evaluated_at";
+
+    // Rows between flushes, so the first bytes reach the client without waiting for the whole export
+    private static final int FLUSH_EVERY = 500;
+
+    @Autowired
+    private EvaluationResultRepository evaluationResultRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ResultExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // A null or empty title exports every result
+    public long export(String title, Format format, OutputStream out) {
+        Long rows = readOnlyTransaction.execute(status -> {
+            try (Stream<ResultExportRow> stream = title == null || title.isEmpty()
+                    ? evaluationResultRepository.streamExportRows()
+                    : evaluationResultRepository.streamExportRowsByTitle(title)) {
+                return write(stream.iterator(), format, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        loggingService.logInfo("Results exported", "Title: " + (title == null ? "" : title)
+            + ", Format: " + format + ", Rows: " + rows);
+        return rows;
+    }
+
+    private long write(Iterator<ResultExportRow> rows, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        while (rows.hasNext()) {
+            ResultExportRow row = rows.next();
+            if (format == Format.CSV) {
+                writeCsv(writer, row);
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+            if (++count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, ResultExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getResultId()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getAssignmentId()));
+        writer.write(',');
+        writer.write(csv(row.getStudentId()));
+        writer.write(',');
+        writer.write(csv(row.getStudentName()));
+        writer.write(',');
+        writer.write(csv(row.getTitle()));
+        writer.write(',');
+        writer.write(csv(row.getAssignmentType()));
+        writer.write(',');
+        writer.write(timestamp(row.getSubmissionTime()));
+        writer.write(',');
+        writer.write(timestamp(row.getDeadline()));
+        writer.write(',');
+        writer.write(String.valueOf(row.isLate()));
+        writer.write(',');
+        writer.write(String.valueOf(row.getScore()));
+        writer.write(',');
+        writer.write(String.valueOf(row.isPassed()));
+        writer.write(',');
+        writer.write(row.getStatus().name());
+        writer.write(',');
+        writer.write(timestamp(row.getEvaluatedAt()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting; a leading formula character is neutralised so spreadsheets show the text
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        String escaped = value;
+        if (!escaped.isEmpty() && "=+-@".indexOf(escaped.charAt(0)) >= 0) {
+            escaped = "'" + escaped;
+        }
+        if (escaped.indexOf(',') >= 0 || escaped.indexOf('"') >= 0 || escaped.indexOf('\n') >= 0 || escaped.indexOf('\r') >= 0) {
+            escaped = '"' + escaped.replace("\"", "\"\"") + '"';
+        }
+        return escaped;
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.evaluation.service;
+
+import com.evaluation.dto.SubmissionSource;
+import com.evaluation.repository.AssignmentRepository;
+import com.evaluation.storage.SourceBlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+// Moves sources of rows written before the blob store out of the assignments table, one
+// keyset page per transaction, on a background thread after startup
+@Service
+public class SourceMigrationService {
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Value("${evaluation.blob-store.migrate-inline-sources:true}")
+    private boolean migrateInlineSources;
+
+    @Value("${evaluation.blob-store.migration-page-size:200}")
+    private int pageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startMigration() {
+        if (!migrateInlineSources) {
+            return;
+        }
+        Thread migration = new Thread(this::migrate, "source-migration");
+        migration.setDaemon(true);
+        migration.start();
+    }
+
+    public long migrate() {
+        long migrated = 0;
+        long afterId = 0L;
+        try {
+            while (true) {
+                List<SubmissionSource> page = assignmentRepository.findInlineSourcesAfter(afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                // Blobs are written before the rows are updated, so a failure never loses a source
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (SubmissionSource source : page) {
+                        String hash = sourceBlobStore.put(source.getCodeContent());
+                        assignmentRepository.moveSourceToBlobStore(source.getAssignmentId(), hash, sourceBlobStore.relativePath(hash));
+                    }
+                });
+                migrated += page.size();
+                afterId = page.get(page.size() - 1).getAssignmentId();
+            }
+            if (migrated > 0) {
+                loggingService.logInfo("Inline sources moved to blob store", "Assignments: " + migrated);
+            }
+        } catch (Exception e) {
+            loggingService.logError("Source migration failed", e.getMessage(), "Migrated: " + migrated + ", AfterId: " + afterId);
+        }
+        return migrated;
+    }
+}
@@ -0,0 +1,44 @@
+package com.evaluation.service;
+
+import com.evaluation.model.Student;
+import com.evaluation.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Submissions only need a reference to the student's row, created once by an upsert
+@Service
+public class StudentService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Ids known to have a row; once a student is here submitting costs no student query at all
+    private final Set<String> knownStudents = ConcurrentHashMap.newKeySet();
+
+    @Value("${evaluation.students.known-ids-max:200000}")
+    private int knownStudentsMax;
+
+    // Reference to the student's row, creating a placeholder row on first submission
+    public Student ensureStudent(String studentId) {
+        if (!knownStudents.contains(studentId)) {
+            transactionTemplate.executeWithoutResult(status -> studentRepository.insertIfAbsent(
+                studentId, "Student " + studentId, studentId + "@example.com"));
+            if (knownStudents.size() >= knownStudentsMax) {
+                knownStudents.clear();
+            }
+            knownStudents.add(studentId);
+        }
+        return studentRepository.getReferenceById(studentId);
+    }
+
+    public int getKnownStudentCount() {
+        return knownStudents.size();
+    }
+}
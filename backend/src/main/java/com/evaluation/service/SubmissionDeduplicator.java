@@ -0,0 +1,153 @@
+package com.evaluation.service;
+
+import com.evaluation.execution.CompilationCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Coalesces repeated submissions (double-clicks, client retries after a timeout) onto the
+// first one. The first request for a key owns it and does the work; duplicates wait for the
+// owner's assignment id while it is in flight and get it immediately once it completes.
+// Completed keys are kept for a bounded time and count; failed ones are dropped so a retry
+// runs again.
+@Component
+public class SubmissionDeduplicator {
+
+    private final int maxEntries;
+    private final long retentionNanos;
+    private final long waitMillis;
+    private final LinkedHashMap<String, Entry> entries;
+    private final AtomicLong owned = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+
+    public SubmissionDeduplicator(@Value("${evaluation.idempotency.max-entries:100000}") int maxEntries,
+                                  @Value("${evaluation.idempotency.retention-millis:600000}") long retentionMillis,
+                                  @Value("${evaluation.idempotency.wait-millis:30000}") long waitMillis) {
+        this.maxEntries = maxEntries;
+        this.retentionNanos = retentionMillis * 1_000_000L;
+        this.waitMillis = waitMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                // Never drop an in-flight key, its duplicates are still waiting on it
+                return size() > SubmissionDeduplicator.this.maxEntries && eldest.getValue().future.isDone();
+            }
+        };
+    }
+
+    // A client-supplied key is scoped to the student; without one the submission itself is the key
+    public String keyFor(String idempotencyKey, String studentId, String title, String codeContent) {
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            return "k:" + studentId + ":" + idempotencyKey.trim();
+        }
+        return "s:" + CompilationCache.hash(studentId + '\0' + title + '\0' + codeContent);
+    }
+
+    public Claim claim(String key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            purgeExpired(now);
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(now)) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                entry = new Entry();
+                entries.put(key, entry);
+                owned.incrementAndGet();
+                return new Claim(key, entry, true);
+            }
+            if (entry.future.isDone()) {
+                replayed.incrementAndGet();
+            } else {
+                coalesced.incrementAndGet();
+            }
+            return new Claim(key, entry, false);
+        }
+    }
+
+    // Entries are in claim order, so expired ones collect at the head
+    private void purgeExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!entry.isExpired(now)) {
+                break;
+            }
+            iterator.remove();
+        }
+    }
+
+    private void release(String key, Entry entry) {
+        synchronized (entries) {
+            entries.remove(key, entry);
+        }
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getOwned() { return owned.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+    public long getReplayed() { return replayed.get(); }
+
+    public class Claim {
+        private final String key;
+        private final Entry entry;
+        private final boolean owner;
+
+        private Claim(String key, Entry entry, boolean owner) {
+            this.key = key;
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        // True for the request that must perform the submission
+        public boolean isOwner() { return owner; }
+
+        public void complete(Long assignmentId) {
+            entry.completedAt = System.nanoTime();
+            entry.future.complete(assignmentId);
+        }
+
+        public void fail(Throwable cause) {
+            release(key, entry);
+            entry.future.completeExceptionally(cause);
+        }
+
+        // Assignment id of the original submission; rethrows its failure if it failed
+        public Long await() throws TimeoutException {
+            try {
+                return entry.future.get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for duplicate submission");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private final class Entry {
+        private final CompletableFuture<Long> future = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        // Retention runs from completion; in-flight entries never expire
+        private boolean isExpired(long now) {
+            return future.isDone() && now - completedAt > retentionNanos;
+        }
+    }
+}
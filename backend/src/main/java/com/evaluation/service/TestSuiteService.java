@@ -0,0 +1,211 @@
+package com.evaluation.service;
+
+import com.evaluation.model.AssignmentDefinition;
+import com.evaluation.model.AssignmentTypeRegistry;
+import com.evaluation.model.EvaluationEngine;
+import com.evaluation.model.TestCase;
+import com.evaluation.model.TestSuiteSnapshot;
+import com.evaluation.repository.TestCaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Test suites are stored in the database and published to the engine as an immutable
+// snapshot. Graders never touch the database for test cases; edits and reloads swap in a
+// new snapshot while running evaluations finish against the one they started with.
+// Every node polls a fingerprint of the test_cases table and reloads when it changes, so an
+// edit made through any node reaches all of them, and a failed startup load is retried.
+@Service
+public class TestSuiteService {
+
+    // Edits replace whole suites with freshly inserted rows, so any edit moves the highest id
+    private static final String FINGERPRINT_SQL =
+        "SELECT CONCAT(COUNT(*), ':', COALESCE(MAX(test_case_id), 0)) FROM test_cases";
+
+    private static final String LOCK_SQL = "SELECT GET_LOCK(?, ?)";
+    private static final String UNLOCK_SQL = "DO RELEASE_LOCK(?)";
+    private static final String SEED_LOCK = "test_cases_seed";
+    private static final int SEED_LOCK_TIMEOUT_SECONDS = 30;
+
+    @Autowired
+    private TestCaseRepository testCaseRepository;
+
+    @Autowired
+    private EvaluationEngine evaluationEngine;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final long pollMillis;
+    private final ScheduledExecutorService scheduler;
+    // Fingerprint of the published snapshot; null until a load succeeds
+    private volatile String loadedFingerprint;
+
+    public TestSuiteService(@Value("${evaluation.test-suites.poll-millis:30000}") long pollMillis) {
+        this.pollMillis = pollMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "test-suite-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void initialize() {
+        try {
+            load();
+        } catch (Exception e) {
+            // Grading continues on the built-in suites until a poll loads them
+            loggingService.logError("Failed to load test suites", e.getMessage(), "Using built-in test suites");
+        }
+        if (pollMillis > 0) {
+            scheduler.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // An empty table is seeded with the built-in suites so existing assignment types keep working
+    private void load() {
+        if (testCaseRepository.count() == 0) {
+            seed();
+        }
+        reload();
+    }
+
+    // Nodes starting together against an empty database would all seed. A MySQL named lock, held
+    // on its own connection until the seeding transaction has committed, lets one node insert;
+    // the others see its rows when they check again under the lock.
+    private void seed() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement lock = connection.prepareStatement(LOCK_SQL)) {
+                lock.setString(1, SEED_LOCK);
+                lock.setInt(2, SEED_LOCK_TIMEOUT_SECONDS);
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next() || rs.getInt(1) != 1) {
+                        throw new IllegalStateException("Timed out waiting for another node to seed test suites");
+                    }
+                }
+            }
+            try {
+                if (testCaseRepository.count() == 0) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        evaluationEngine.getTestRepository().forEach(this::saveSuite);
+                    });
+                }
+            } finally {
+                try (PreparedStatement unlock = connection.prepareStatement(UNLOCK_SQL)) {
+                    unlock.setString(1, SEED_LOCK);
+                    unlock.execute();
+                }
+            }
+            return null;
+        });
+    }
+
+    private void poll() {
+        try {
+            if (loadedFingerprint == null) {
+                load();
+            } else if (!loadedFingerprint.equals(fingerprint())) {
+                reload();
+            }
+        } catch (Exception e) {
+            loggingService.logError("Failed to refresh test suites", e.getMessage(), "");
+        }
+    }
+
+    private String fingerprint() {
+        return jdbcTemplate.queryForObject(FINGERPRINT_SQL, String.class);
+    }
+
+    // The fingerprint is read before the rows, so an edit racing with the load is reloaded on the next poll
+    public synchronized TestSuiteSnapshot reload() {
+        String fingerprint = fingerprint();
+        Map<String, List<TestCase>> suites = new LinkedHashMap<>();
+        for (TestCase testCase : testCaseRepository.findAllByOrderByAssignmentTypeAscPositionAsc()) {
+            suites.computeIfAbsent(testCase.getAssignmentType(), type -> new ArrayList<>()).add(testCase);
+        }
+
+        AssignmentTypeRegistry registry = evaluationEngine.getTypeRegistry();
+        for (String assignmentType : suites.keySet()) {
+            registerIfMissing(registry, assignmentType);
+        }
+
+        TestSuiteSnapshot snapshot = evaluationEngine.publishTestSuites(suites);
+        loadedFingerprint = fingerprint;
+        loggingService.logInfo("Test suites loaded", "Version: " + snapshot.getVersion() + ", Suites: " + suites.size());
+        return snapshot;
+    }
+
+    public TestSuiteSnapshot getSnapshot() {
+        return evaluationEngine.getTestSuites();
+    }
+
+    public List<TestCase> getSuite(String assignmentType) {
+        return evaluationEngine.getTestSuites().getSuite(assignmentType);
+    }
+
+    // Replaces every test case of one suite and publishes a new snapshot
+    public TestSuiteSnapshot replaceSuite(String assignmentType, List<TestCase> testCases) {
+        if (testCases == null || testCases.isEmpty()) {
+            throw new IllegalArgumentException("A test suite needs at least one test case");
+        }
+        for (TestCase testCase : testCases) {
+            if (testCase.getExpectedOutput() == null) {
+                throw new IllegalArgumentException("Every test case needs an expected output");
+            }
+            if (testCase.getTolerance() != null && !(testCase.getTolerance() >= 0)) {
+                throw new IllegalArgumentException("Tolerance must be a non-negative number");
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            testCaseRepository.deleteSuite(assignmentType);
+            saveSuite(assignmentType, testCases);
+        });
+        loggingService.logInfo("Test suite updated", "AssignmentType: " + assignmentType + ", TestCases: " + testCases.size());
+        return reload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void saveSuite(String assignmentType, List<TestCase> testCases) {
+        List<TestCase> rows = new ArrayList<>(testCases.size());
+        for (int i = 0; i < testCases.size(); i++) {
+            TestCase row = testCases.get(i).copy();
+            row.setAssignmentType(assignmentType);
+            row.setPosition(i);
+            rows.add(row);
+        }
+        testCaseRepository.saveAll(rows);
+    }
+
+    // Suites created by instructors can be selected explicitly at submission
+    private static void registerIfMissing(AssignmentTypeRegistry registry, String assignmentType) {
+        if (!registry.contains(assignmentType)) {
+            registry.register(new AssignmentDefinition(assignmentType, assignmentType, Integer.MAX_VALUE, List.of(), List.of()));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.evaluation.similarity;
+
+// A submission as held by the similarity index
+final class IndexedSignature {
+    private final long assignmentId;
+    private final String studentId;
+    private final int tokenCount;
+    private final int[] signature;
+
+    IndexedSignature(long assignmentId, String studentId, int tokenCount, int[] signature) {
+        this.assignmentId = assignmentId;
+        this.studentId = studentId;
+        this.tokenCount = tokenCount;
+        this.signature = signature;
+    }
+
+    // Resubmissions of one student are never reported against each other
+    boolean sameStudent(IndexedSignature other) {
+        return studentId != null && studentId.equals(other.studentId);
+    }
+
+    long getAssignmentId() { return assignmentId; }
+    String getStudentId() { return studentId; }
+    int getTokenCount() { return tokenCount; }
+    int[] getSignature() { return signature; }
+}
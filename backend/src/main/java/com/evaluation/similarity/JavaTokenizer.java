@@ -0,0 +1,128 @@
+package com.evaluation.similarity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reduces Java source to token codes that do not change when code is renamed or reformatted.
+// Comments, whitespace and package/import declarations are dropped, every identifier becomes
+// the same code and every literal one code per kind; keywords and operators are kept.
+final class JavaTokenizer {
+
+    static final int IDENTIFIER = 1;
+    static final int STRING = 2;
+    static final int CHARACTER = 3;
+    static final int NUMBER = 4;
+    private static final int KEYWORD_BASE = 0x100;
+    private static final int SYMBOL_BASE = 0x10000;
+
+    private static final List<String> KEYWORDS = Arrays.asList(
+        "abstract", "assert", "boolean", "break", "byte", "case", "catch", "char", "class", "const",
+        "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float",
+        "for", "goto", "if", "implements", "instanceof", "int", "interface", "long", "native", "new",
+        "private", "protected", "public", "return", "short", "static", "strictfp", "super", "switch",
+        "synchronized", "this", "throw", "throws", "transient", "try", "void", "volatile", "while",
+        "true", "false", "null", "var", "record", "yield");
+    private static final Map<String, Integer> KEYWORD_CODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < KEYWORDS.size(); i++) {
+            KEYWORD_CODES.put(KEYWORDS.get(i), KEYWORD_BASE + i);
+        }
+    }
+
+    private JavaTokenizer() {}
+
+    static int[] tokenize(String source) {
+        if (source == null) {
+            return new int[0];
+        }
+        int[] tokens = new int[Math.max(16, source.length() / 3)];
+        int count = 0;
+        int length = source.length();
+        int i = 0;
+        while (i < length) {
+            char c = source.charAt(i);
+            char next = i + 1 < length ? source.charAt(i + 1) : '\0';
+            int token;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (c == '/' && next == '/') {
+                int end = source.indexOf('\n', i);
+                i = end < 0 ? length : end + 1;
+                continue;
+            } else if (c == '/' && next == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                continue;
+            } else if (c == '"') {
+                i = source.startsWith("\"\"\"", i) ? skipTextBlock(source, i) : skipQuoted(source, i, '"');
+                token = STRING;
+            } else if (c == '\'') {
+                i = skipQuoted(source, i, '\'');
+                token = CHARACTER;
+            } else if (Character.isDigit(c) || (c == '.' && Character.isDigit(next))) {
+                // Covers hex, binary, underscores, suffixes and fractions; an exponent sign ends up as an operator
+                while (i < length && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_'
+                        || source.charAt(i) == '.')) {
+                    i++;
+                }
+                token = NUMBER;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int start = i;
+                while (i < length && Character.isJavaIdentifierPart(source.charAt(i))) {
+                    i++;
+                }
+                String word = source.substring(start, i);
+                if (word.equals("import") || word.equals("package")) {
+                    int end = source.indexOf(';', i);
+                    i = end < 0 ? length : end + 1;
+                    continue;
+                }
+                token = KEYWORD_CODES.getOrDefault(word, IDENTIFIER);
+            } else {
+                i++;
+                token = SYMBOL_BASE + c;
+            }
+            if (count == tokens.length) {
+                tokens = Arrays.copyOf(tokens, count * 2);
+            }
+            tokens[count++] = token;
+        }
+        return Arrays.copyOf(tokens, count);
+    }
+
+    // Returns the index after the closing quote; an unterminated literal ends at the line break
+    private static int skipQuoted(String source, int start, char quote) {
+        int i = start + 1;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (c == '\\') {
+                i += 2;
+            } else if (c == quote) {
+                return i + 1;
+            } else if (c == '\n') {
+                return i;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+
+    private static int skipTextBlock(String source, int start) {
+        int i = start + 3;
+        while (i < source.length()) {
+            if (source.charAt(i) == '\\') {
+                i += 2;
+            } else if (source.startsWith("\"\"\"", i)) {
+                return i + 3;
+            } else {
+                i++;
+            }
+        }
+        return source.length();
+    }
+}
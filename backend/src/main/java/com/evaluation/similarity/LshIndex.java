@@ -0,0 +1,112 @@
+package com.evaluation.similarity;
+
+import com.evaluation.dto.SimilarSubmission;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Banded LSH index over the MinHash signatures of one assignment title. Signatures are cut
+// into bands of rows values; two submissions are candidates when any band matches exactly,
+// which at Jaccard similarity s happens with probability 1 - (1 - s^rows)^bands, an S-curve
+// that rises around (1/bands)^(1/rows). A query only compares the submissions sharing one of
+// its buckets instead of every submission of the title.
+class LshIndex {
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, IndexedSignature> entries = new HashMap<>();
+    private final Map<Long, List<IndexedSignature>> buckets = new HashMap<>();
+    // Highest persisted signature id loaded; guarded by refreshLock
+    private long lastSignatureId;
+    // nanoTime values only compare by difference, so "never" cannot be a sentinel time
+    private boolean everRefreshed;
+    private long refreshedAt;
+    final Object refreshLock = new Object();
+
+    LshIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    synchronized void add(IndexedSignature entry) {
+        if (entries.putIfAbsent(entry.getAssignmentId(), entry) != null) {
+            return;
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(entry.getSignature(), band), key -> new ArrayList<>(2)).add(entry);
+        }
+    }
+
+    synchronized IndexedSignature get(long assignmentId) {
+        return entries.get(assignmentId);
+    }
+
+    synchronized boolean contains(long assignmentId) {
+        return entries.containsKey(assignmentId);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // The k most similar submissions of other students at or above minSimilarity
+    synchronized List<SimilarSubmission> query(IndexedSignature probe, int k, double minSimilarity, int minTokens) {
+        Set<Long> seen = new HashSet<>();
+        List<SimilarSubmission> matches = new ArrayList<>();
+        for (int band = 0; band < bands; band++) {
+            List<IndexedSignature> bucket = buckets.get(bandKey(probe.getSignature(), band));
+            if (bucket == null) {
+                continue;
+            }
+            for (IndexedSignature candidate : bucket) {
+                if (candidate.getAssignmentId() == probe.getAssignmentId() || candidate.sameStudent(probe)
+                        || candidate.getTokenCount() < minTokens || !seen.add(candidate.getAssignmentId())) {
+                    continue;
+                }
+                double similarity = MinHasher.similarity(probe.getSignature(), candidate.getSignature());
+                if (similarity >= minSimilarity) {
+                    matches.add(new SimilarSubmission(candidate.getAssignmentId(), candidate.getStudentId(), similarity));
+                }
+            }
+        }
+        return matches.stream()
+            .sorted(Comparator.comparingDouble(SimilarSubmission::getSimilarity).reversed()
+                .thenComparingLong(SimilarSubmission::getAssignmentId))
+            .limit(k)
+            .collect(Collectors.toList());
+    }
+
+    synchronized List<IndexedSignature> snapshot() {
+        return new ArrayList<>(entries.values());
+    }
+
+    // Refreshing is due when the last one is older than intervalNanos; called under refreshLock
+    boolean refreshDue(long now, long intervalNanos) {
+        return !everRefreshed || now - refreshedAt > intervalNanos;
+    }
+
+    void refreshed(long now, long lastSignatureId) {
+        this.everRefreshed = true;
+        this.refreshedAt = now;
+        this.lastSignatureId = Math.max(this.lastSignatureId, lastSignatureId);
+    }
+
+    long getLastSignatureId() { return lastSignatureId; }
+
+    long bandKey(int[] signature, int band) {
+        return bandKey(signature, band, rows);
+    }
+
+    static long bandKey(int[] signature, int band, int rows) {
+        long key = band;
+        for (int row = band * rows; row < (band + 1) * rows; row++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[row];
+        }
+        return MinHasher.mix(key);
+    }
+}
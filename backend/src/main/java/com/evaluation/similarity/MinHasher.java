@@ -0,0 +1,85 @@
+package com.evaluation.similarity;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// MinHash over shingles (runs of consecutive normalized tokens). For each of numHashes hash
+// functions the signature keeps the smallest hash of any shingle; the share of positions where
+// two signatures agree estimates the Jaccard similarity of their shingle sets. Seeds are fixed,
+// so every node computes the same signature for the same source.
+final class MinHasher {
+
+    private static final long SEED = 0x5EEDC0DE5EEDC0DEL;
+
+    private final int shingleSize;
+    private final long[] seeds;
+
+    MinHasher(int numHashes, int shingleSize) {
+        this.shingleSize = shingleSize;
+        this.seeds = new long[numHashes];
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    int[] signature(int[] tokens) {
+        long[] minima = new long[seeds.length];
+        Arrays.fill(minima, Long.MAX_VALUE);
+        // A program shorter than one shingle is a single shingle; an empty one keeps the initial values
+        int shingles = tokens.length == 0 ? 0 : Math.max(1, tokens.length - shingleSize + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0;
+            for (int j = start; j < Math.min(start + shingleSize, tokens.length); j++) {
+                shingle = shingle * 0x9E3779B97F4A7C15L + tokens[j];
+            }
+            shingle = mix(shingle);
+            for (int i = 0; i < seeds.length; i++) {
+                long hash = mix(shingle ^ seeds[i]);
+                if (hash < minima[i]) {
+                    minima[i] = hash;
+                }
+            }
+        }
+        int[] signature = new int[seeds.length];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = (int) (minima[i] >>> 32);
+        }
+        return signature;
+    }
+
+    int getNumHashes() { return seeds.length; }
+
+    static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // 64-bit finalizer of MurmurHash3
+    static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe1a85ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
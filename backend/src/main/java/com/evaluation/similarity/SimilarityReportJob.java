@@ -0,0 +1,81 @@
+package com.evaluation.similarity;
+
+import com.evaluation.dto.SimilarityCluster;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress and outcome of a similarity report for one assignment title, read by the status endpoint
+public class SimilarityReportJob {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String jobId;
+    private final String title;
+    private final long total;
+    private final double threshold;
+    private final LocalDateTime startedAt;
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong signed = new AtomicLong();
+    private volatile State state = State.RUNNING;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile int submissions;
+    private volatile long comparedPairs;
+    private volatile List<SimilarityCluster> clusters = List.of();
+
+    public SimilarityReportJob(String jobId, String title, long total, double threshold) {
+        this.jobId = jobId;
+        this.title = title;
+        this.total = total;
+        this.threshold = threshold;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    void recordScanned(long count, long newlySigned) {
+        scanned.addAndGet(count);
+        signed.addAndGet(newlySigned);
+    }
+
+    void complete(int submissions, long comparedPairs, List<SimilarityCluster> clusters) {
+        this.submissions = submissions;
+        this.comparedPairs = comparedPairs;
+        this.clusters = clusters;
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.COMPLETED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        this.finishedAt = LocalDateTime.now();
+        this.state = State.FAILED;
+    }
+
+    // Getters
+    public String getJobId() { return jobId; }
+    public String getTitle() { return title; }
+    public long getTotal() { return total; }
+    public double getThreshold() { return threshold; }
+    public long getScanned() { return scanned.get(); }
+    public long getSigned() { return signed.get(); }
+    public State getState() { return state; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+    // Latest submission of each student that is long enough to compare
+    public int getSubmissions() { return submissions; }
+    public long getComparedPairs() { return comparedPairs; }
+    public List<SimilarityCluster> getClusters() { return clusters; }
+
+    public double getPercentComplete() {
+        if (state != State.RUNNING) {
+            return 100.0;
+        }
+        // Clustering after the scan is quick, so scanning counts for the whole progress
+        return total > 0 ? Math.min(99.0, scanned.get() * 100.0 / total) : 0.0;
+    }
+}
@@ -0,0 +1,408 @@
+package com.evaluation.similarity;
+
+import com.evaluation.dto.SimilarSubmission;
+import com.evaluation.dto.SimilarityCluster;
+import com.evaluation.dto.SubmissionSource;
+import com.evaluation.model.Assignment;
+import com.evaluation.repository.AssignmentRepository;
+import com.evaluation.service.LoggingService;
+import com.evaluation.storage.SourceBlobStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.annotation.PreDestroy;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Near-duplicate detection between submissions of the same assignment title. Each submission
+// gets a MinHash signature of its normalized source when it is stored; signatures are kept in
+// submission_signatures and, per title, in an in-memory LSH index loaded on first use. Queries
+// and reports only compare submissions that share an LSH bucket instead of every pair.
+@Service
+public class SimilarityService {
+
+    // assignment_id is unique; re-signing overwrites, e.g. after the hash settings changed
+    private static final String UPSERT_SQL =
+        "INSERT INTO submission_signatures (assignment_id, title, student_id, token_count, min_hash, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, NOW(6)) " +
+        "ON DUPLICATE KEY UPDATE token_count = VALUES(token_count), min_hash = VALUES(min_hash)";
+
+    private static final String LOAD_SQL =
+        "SELECT signature_id, assignment_id, student_id, token_count, min_hash FROM submission_signatures " +
+        "WHERE title = ? AND signature_id > ? ORDER BY signature_id";
+
+    private static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AssignmentRepository assignmentRepository;
+
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final boolean indexOnSubmit;
+    private final MinHasher hasher;
+    private final int bands;
+    private final int rows;
+    private final int minTokens;
+    private final double reportThreshold;
+    private final int pageSize;
+    private final long refreshNanos;
+    private final long refreshWindow;
+    private final LinkedHashMap<String, LshIndex> indexes;
+    private final ExecutorService coordinator;
+    private final Map<String, SimilarityReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, SimilarityReportJob> runningByTitle = new ConcurrentHashMap<>();
+
+    public SimilarityService(@Value("${evaluation.similarity.index-on-submit:true}") boolean indexOnSubmit,
+                             @Value("${evaluation.similarity.num-hashes:128}") int numHashes,
+                             @Value("${evaluation.similarity.bands:16}") int bands,
+                             @Value("${evaluation.similarity.shingle-size:5}") int shingleSize,
+                             @Value("${evaluation.similarity.min-tokens:20}") int minTokens,
+                             @Value("${evaluation.similarity.report-threshold:0.8}") double reportThreshold,
+                             @Value("${evaluation.similarity.max-titles:50}") int maxTitles,
+                             @Value("${evaluation.similarity.refresh-millis:1000}") long refreshMillis,
+                             @Value("${evaluation.similarity.refresh-window:200}") long refreshWindow,
+                             @Value("${evaluation.similarity.page-size:500}") int pageSize) {
+        if (numHashes <= 0 || numHashes > 512 || bands <= 0 || numHashes % bands != 0) {
+            throw new IllegalArgumentException("evaluation.similarity.num-hashes must be at most 512 and a multiple of bands");
+        }
+        this.indexOnSubmit = indexOnSubmit;
+        this.hasher = new MinHasher(numHashes, shingleSize);
+        this.bands = bands;
+        this.rows = numHashes / bands;
+        this.minTokens = minTokens;
+        this.reportThreshold = reportThreshold;
+        this.pageSize = pageSize;
+        this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+        this.refreshWindow = Math.max(0, refreshWindow);
+        this.indexes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LshIndex> eldest) {
+                // Evicted titles are loaded from submission_signatures again when next asked for
+                return size() > maxTitles;
+            }
+        };
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "similarity-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Called when a submission is stored; a failure here never fails the submission. Inside a
+    // transaction the signature is only written once the assignment is committed.
+    public void index(Assignment assignment) {
+        if (!indexOnSubmit) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexNow(assignment);
+                }
+            });
+        } else {
+            indexNow(assignment);
+        }
+    }
+
+    private void indexNow(Assignment assignment) {
+        try {
+            IndexedSignature entry = sign(assignment.getAssignmentId(), studentIdOf(assignment), assignment.getCodeContent());
+            persist(assignment.getTitle(), List.of(entry));
+            LshIndex index;
+            synchronized (indexes) {
+                index = indexes.get(assignment.getTitle());
+            }
+            if (index != null) {
+                index.add(entry);
+            }
+        } catch (Exception e) {
+            loggingService.logError("Failed to index submission for similarity", e.getMessage(),
+                "AssignmentId: " + assignment.getAssignmentId());
+        }
+    }
+
+    // The k submissions of other students most similar to this one; empty when it does not exist
+    public Optional<List<SimilarSubmission>> findSimilar(Long assignmentId, int k, double minSimilarity) {
+        Optional<Assignment> found = assignmentRepository.findById(assignmentId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        Assignment assignment = found.get();
+        LshIndex index = index(assignment.getTitle());
+        IndexedSignature probe = index.get(assignmentId);
+        if (probe == null) {
+            // Stored before signatures existed, or indexing it failed at submission
+            probe = sign(assignmentId, studentIdOf(assignment), assignment.getCodeContent());
+            persist(assignment.getTitle(), List.of(probe));
+            index.add(probe);
+        }
+        if (probe.getTokenCount() < minTokens) {
+            return Optional.of(List.of());
+        }
+        return Optional.of(index.query(probe, Math.max(1, Math.min(k, MAX_RESULTS)), minSimilarity, minTokens));
+    }
+
+    // Starting a report for a title that already has one running returns the running job
+    public SimilarityReportJob startReport(String title) {
+        SimilarityReportJob running = runningByTitle.get(title);
+        if (running != null) {
+            return running;
+        }
+
+        SimilarityReportJob job = new SimilarityReportJob(UUID.randomUUID().toString(), title,
+            assignmentRepository.countByTitle(title), reportThreshold);
+        SimilarityReportJob existing = runningByTitle.putIfAbsent(title, job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getJobId(), job);
+        coordinator.execute(() -> runReport(job));
+
+        loggingService.logInfo("Similarity report started", "Title: " + title + ", JobId: " + job.getJobId() + ", Total: " + job.getTotal());
+        return job;
+    }
+
+    public Optional<SimilarityReportJob> getReport(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void runReport(SimilarityReportJob job) {
+        try {
+            LshIndex index = index(job.getTitle());
+            refresh(job.getTitle(), index, true);
+
+            // Signs every submission that has no signature yet, streamed in keyset pages
+            long afterId = 0L;
+            while (true) {
+                List<SubmissionSource> page = assignmentRepository.findSubmissionsByTitleAfter(
+                    job.getTitle(), afterId, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<IndexedSignature> missing = new ArrayList<>();
+                for (SubmissionSource submission : page) {
+                    if (!index.contains(submission.getAssignmentId())) {
+                        missing.add(sign(submission.getAssignmentId(), submission.getStudentId(), source(submission)));
+                    }
+                }
+                persist(job.getTitle(), missing);
+                missing.forEach(index::add);
+                job.recordScanned(page.size(), missing.size());
+                afterId = page.get(page.size() - 1).getAssignmentId();
+            }
+
+            cluster(index.snapshot(), job);
+            loggingService.logInfo("Similarity report completed", "Title: " + job.getTitle() + ", JobId: " + job.getJobId()
+                + ", Submissions: " + job.getSubmissions() + ", Clusters: " + job.getClusters().size()
+                + ", ComparedPairs: " + job.getComparedPairs());
+
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            loggingService.logError("Similarity report failed", e.getMessage(), "Title: " + job.getTitle() + ", JobId: " + job.getJobId());
+        } finally {
+            runningByTitle.remove(job.getTitle(), job);
+        }
+    }
+
+    // Single-linkage clustering of the latest submission of every student: pairs sharing an LSH
+    // bucket are compared and linked at reportThreshold or above
+    private void cluster(List<IndexedSignature> entries, SimilarityReportJob job) {
+        Map<String, IndexedSignature> latestByStudent = new HashMap<>();
+        List<IndexedSignature> cohort = new ArrayList<>();
+        for (IndexedSignature entry : entries) {
+            if (entry.getTokenCount() < minTokens) {
+                continue;
+            }
+            if (entry.getStudentId() == null) {
+                cohort.add(entry);
+            } else {
+                latestByStudent.merge(entry.getStudentId(), entry,
+                    (a, b) -> a.getAssignmentId() > b.getAssignmentId() ? a : b);
+            }
+        }
+        cohort.addAll(latestByStudent.values());
+        cohort.sort(Comparator.comparingLong(IndexedSignature::getAssignmentId));
+
+        Links links = new Links(cohort.size());
+        // Identical signatures are linked directly: when many hand in the same code, comparing
+        // every pair in their shared buckets would be quadratic
+        Map<IntBuffer, Integer> firstWithSignature = new HashMap<>();
+        List<Integer> distinct = new ArrayList<>();
+        for (int i = 0; i < cohort.size(); i++) {
+            Integer first = firstWithSignature.putIfAbsent(IntBuffer.wrap(cohort.get(i).getSignature()), i);
+            if (first != null) {
+                links.union(first, i, 1.0);
+            } else {
+                distinct.add(i);
+            }
+        }
+
+        long compared = 0;
+        for (int band = 0; band < bands; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i : distinct) {
+                buckets.computeIfAbsent(LshIndex.bandKey(cohort.get(i).getSignature(), band, rows), key -> new ArrayList<>(2)).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                for (int a = 0; a < bucket.size(); a++) {
+                    for (int b = a + 1; b < bucket.size(); b++) {
+                        int x = bucket.get(a);
+                        int y = bucket.get(b);
+                        // Pairs already in one cluster need no comparison
+                        if (links.find(x) == links.find(y)) {
+                            continue;
+                        }
+                        compared++;
+                        double similarity = MinHasher.similarity(cohort.get(x).getSignature(), cohort.get(y).getSignature());
+                        if (similarity >= reportThreshold) {
+                            links.union(x, y, similarity);
+                        }
+                    }
+                }
+            }
+        }
+
+        Map<Integer, List<SimilarityCluster.Member>> members = new HashMap<>();
+        for (int i = 0; i < cohort.size(); i++) {
+            IndexedSignature entry = cohort.get(i);
+            members.computeIfAbsent(links.find(i), root -> new ArrayList<>())
+                .add(new SimilarityCluster.Member(entry.getAssignmentId(), entry.getStudentId()));
+        }
+        List<SimilarityCluster> clusters = members.entrySet().stream()
+            .filter(cluster -> cluster.getValue().size() > 1)
+            .map(cluster -> new SimilarityCluster(cluster.getValue(),
+                links.minLink[cluster.getKey()], links.maxLink[cluster.getKey()]))
+            .sorted(Comparator.comparingInt(SimilarityCluster::getSize).reversed()
+                .thenComparing(Comparator.comparingDouble(SimilarityCluster::getMaxLinkSimilarity).reversed()))
+            .collect(Collectors.toList());
+        job.complete(cohort.size(), compared, clusters);
+    }
+
+    private LshIndex index(String title) {
+        LshIndex index;
+        synchronized (indexes) {
+            index = indexes.computeIfAbsent(title, t -> new LshIndex(bands, rows));
+        }
+        refresh(title, index, false);
+        return index;
+    }
+
+    // Loads signatures written since the last load, including those written by other nodes;
+    // outside a report this happens at most once per refresh interval. Concurrent inserts can
+    // commit out of id order, so the last refreshWindow ids are read again each time and rows
+    // already in the index are skipped.
+    private void refresh(String title, LshIndex index, boolean force) {
+        synchronized (index.refreshLock) {
+            long now = System.nanoTime();
+            if (!force && !index.refreshDue(now, refreshNanos)) {
+                return;
+            }
+            long[] lastSignatureId = {index.getLastSignatureId()};
+            int signatureBytes = hasher.getNumHashes() * Integer.BYTES;
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                lastSignatureId[0] = rs.getLong(1);
+                if (index.contains(rs.getLong(2))) {
+                    return;
+                }
+                byte[] minHash = rs.getBytes(5);
+                // Signed with other hash settings; the next report for the title signs it again
+                if (minHash != null && minHash.length == signatureBytes) {
+                    index.add(new IndexedSignature(rs.getLong(2), rs.getString(3), rs.getInt(4), MinHasher.fromBytes(minHash)));
+                }
+            }, title, Math.max(0L, index.getLastSignatureId() - refreshWindow));
+            index.refreshed(now, lastSignatureId[0]);
+        }
+    }
+
+    private IndexedSignature sign(Long assignmentId, String studentId, String source) {
+        int[] tokens = JavaTokenizer.tokenize(source);
+        return new IndexedSignature(assignmentId, studentId, tokens.length, hasher.signature(tokens));
+    }
+
+    private void persist(String title, List<IndexedSignature> entries) {
+        if (!entries.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, entries.stream()
+                .map(entry -> new Object[] {entry.getAssignmentId(), title, entry.getStudentId(), entry.getTokenCount(),
+                    MinHasher.toBytes(entry.getSignature())})
+                .collect(Collectors.toList()));
+        }
+    }
+
+    private String source(SubmissionSource submission) {
+        return submission.getSourceHash() != null
+            ? sourceBlobStore.get(submission.getSourceHash())
+            : submission.getCodeContent();
+    }
+
+    private static String studentIdOf(Assignment assignment) {
+        return assignment.getStudent() != null ? assignment.getStudent().getStudentId() : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    // Union-find over cohort positions that also tracks the weakest and strongest link of each cluster
+    private static final class Links {
+        private final int[] parent;
+        private final double[] minLink;
+        private final double[] maxLink;
+
+        Links(int size) {
+            parent = new int[size];
+            minLink = new double[size];
+            maxLink = new double[size];
+            for (int i = 0; i < size; i++) {
+                parent[i] = i;
+            }
+            Arrays.fill(minLink, 1.0);
+        }
+
+        int find(int i) {
+            while (parent[i] != i) {
+                parent[i] = parent[parent[i]];
+                i = parent[i];
+            }
+            return i;
+        }
+
+        void union(int a, int b, double similarity) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            parent[rootB] = rootA;
+            // Singletons start at 1.0 and 0.0, which leave min and max unchanged
+            minLink[rootA] = Math.min(similarity, Math.min(minLink[rootA], minLink[rootB]));
+            maxLink[rootA] = Math.max(similarity, Math.max(maxLink[rootA], maxLink[rootB]));
+        }
+    }
+}
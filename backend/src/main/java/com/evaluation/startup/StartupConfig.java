@@ -0,0 +1,37 @@
+package com.evaluation.startup;
+
+import com.evaluation.events.ResultStreamService;
+import com.evaluation.metrics.EvaluationMetricsBinder;
+import com.evaluation.model.EvaluationEngine;
+import com.evaluation.service.GradingJobWorker;
+import com.evaluation.service.LoggingService;
+import com.evaluation.service.TestSuiteService;
+import com.evaluation.stats.GradeStatsService;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.servlet.Filter;
+
+@Configuration
+public class StartupConfig {
+
+    // Created at startup even with spring.main.lazy-initialization: these load state or start
+    // background threads when constructed, and nothing else asks for them early enough
+    @Bean
+    public static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(LoggingService.class, TestSuiteService.class,
+            EvaluationEngine.class, EvaluationMetricsBinder.class, ResultStreamService.class,
+            GradeStatsService.class, GradingJobWorker.class, StartupReport.class);
+    }
+
+    @Bean
+    public Filter firstRequestFilter(StartupReport startupReport) {
+        return (request, response, chain) -> {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                startupReport.recordRequest();
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package com.evaluation.startup;
+
+import com.evaluation.service.LoggingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// How long this node took to start, measured from JVM start so class loading and JVM startup,
+// which Spring's own timings leave out, are included. Starting with --startup-steps also
+// records the slowest context startup steps (mostly bean creation).
+@Component
+public class StartupReport {
+
+    private static final int SLOWEST_STEPS = 15;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final boolean trainingRun;
+    private volatile long startedMillis = -1;
+    private volatile long readyMillis = -1;
+    private volatile long contextMillis = -1;
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+    private volatile List<Map<String, Object>> slowestSteps = List.of();
+
+    public StartupReport(@Value("${evaluation.startup.training-run:false}") boolean trainingRun) {
+        this.trainingRun = trainingRun;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void onStarted(ApplicationStartedEvent event) {
+        startedMillis = uptimeMillis();
+        contextMillis = event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1;
+    }
+
+    // Runs after every other ready listener, so their work counts towards the startup time
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onReady() {
+        readyMillis = uptimeMillis();
+        if (context.getApplicationStartup() instanceof BufferingApplicationStartup) {
+            slowestSteps = slowestSteps(((BufferingApplicationStartup) context.getApplicationStartup()).getBufferedTimeline());
+        }
+        loggingService.logInfo("Application ready", "ReadyMillis: " + readyMillis + ", ContextMillis: " + contextMillis
+            + ", LoadedClasses: " + ManagementFactory.getClassLoadingMXBean().getLoadedClassCount()
+            + ", ClassDataSharing: " + classDataSharing());
+
+        if (trainingRun) {
+            // The AppCDS training run only needs the classes loaded by a full startup; exiting
+            // from another thread lets the remaining ready listeners return first
+            Thread exit = new Thread(() -> System.exit(SpringApplication.exit(context)), "training-run-exit");
+            exit.start();
+        }
+    }
+
+    // Called when a request finishes; only the first one is kept
+    public void recordRequest() {
+        if (firstRequestMillis.get() < 0) {
+            firstRequestMillis.compareAndSet(-1, uptimeMillis());
+        }
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jvmToStartedMillis", startedMillis);
+        report.put("jvmToReadyMillis", readyMillis);
+        report.put("jvmToFirstRequestMillis", firstRequestMillis.get());
+        report.put("contextRefreshMillis", contextMillis);
+        report.put("loadedClasses", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        report.put("classDataSharing", classDataSharing());
+        report.put("lazyInitialization", context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false));
+        report.put("slowestSteps", slowestSteps);
+        return report;
+    }
+
+    private static List<Map<String, Object>> slowestSteps(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+            .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+            .limit(SLOWEST_STEPS)
+            .map(event -> {
+                Map<String, Object> step = new LinkedHashMap<>();
+                step.put("name", event.getStartupStep().getName());
+                step.put("millis", event.getDuration().toMillis());
+                List<String> tags = new ArrayList<>();
+                for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+                    tags.add(tag.getKey() + "=" + tag.getValue());
+                }
+                if (!tags.isEmpty()) {
+                    step.put("tags", tags.stream().collect(Collectors.joining(", ")));
+                }
+                return step;
+            })
+            .collect(Collectors.toList());
+    }
+
+    // HotSpot reports "sharing" in java.vm.info when classes were mapped from a CDS archive
+    private static boolean classDataSharing() {
+        return System.getProperty("java.vm.info", "").contains("sharing");
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,83 @@
+package com.evaluation.stats;
+
+import com.evaluation.model.EvaluationResult;
+import java.util.Arrays;
+
+// Counters and histograms of graded results of one assignment type. Not thread-safe; the
+// stats service guards every instance with its own lock.
+class GradeAggregate {
+
+    static final String[] GRADES = {"A", "B", "C", "D", "F"};
+
+    long results;
+    long passed;
+    double scoreSum;
+    long compileFailures;
+    final long[] grades = new long[GRADES.length];
+    long[] testRuns = new long[0];
+    long[] testFailures = new long[0];
+
+    void record(double score, boolean resultPassed, String testOutcomes) {
+        results++;
+        if (resultPassed) {
+            passed++;
+        }
+        scoreSum += score;
+        grades[gradeIndex(score)]++;
+        if (testOutcomes == null || testOutcomes.isEmpty()) {
+            compileFailures++;
+            return;
+        }
+        ensureTests(testOutcomes.length());
+        for (int i = 0; i < testOutcomes.length(); i++) {
+            testRuns[i]++;
+            if (testOutcomes.charAt(i) != '1') {
+                testFailures[i]++;
+            }
+        }
+    }
+
+    void recordTest(int position, long runs, long failures) {
+        ensureTests(position + 1);
+        testRuns[position] += runs;
+        testFailures[position] += failures;
+    }
+
+    void add(GradeAggregate other) {
+        results += other.results;
+        passed += other.passed;
+        scoreSum += other.scoreSum;
+        compileFailures += other.compileFailures;
+        for (int i = 0; i < grades.length; i++) {
+            grades[i] += other.grades[i];
+        }
+        ensureTests(other.testRuns.length);
+        for (int i = 0; i < other.testRuns.length; i++) {
+            testRuns[i] += other.testRuns[i];
+            testFailures[i] += other.testFailures[i];
+        }
+    }
+
+    GradeAggregate copy() {
+        GradeAggregate copy = new GradeAggregate();
+        copy.add(this);
+        return copy;
+    }
+
+    private void ensureTests(int count) {
+        if (testRuns.length < count) {
+            testRuns = Arrays.copyOf(testRuns, count);
+            testFailures = Arrays.copyOf(testFailures, count);
+        }
+    }
+
+    static int gradeIndex(double score) {
+        switch (EvaluationResult.gradeLetter(score)) {
+            case "A": return 0;
+            case "B": return 1;
+            case "C": return 2;
+            case "D": return 3;
+            default: return 4;
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.evaluation.stats;
+
+import com.evaluation.dto.AssignmentStatsView;
+import com.evaluation.events.ResultEvent;
+import com.evaluation.events.ResultEventBus;
+import com.evaluation.model.EvaluationEngine;
+import com.evaluation.model.EvaluationStatus;
+import com.evaluation.model.TestCase;
+import com.evaluation.service.LoggingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Per assignment type grade statistics maintained as results are graded, so the dashboard never
+// scans evaluation_results. Each node counts its own results in memory and periodically adds
+// them to the assignment_stats tables as SQL increments, then reloads the totals, which
+// therefore include every node's results. Reads combine the loaded totals with what this node
+// has not flushed yet. Totals are rebuilt from evaluation_results on startup when the tables
+// are empty, and after a regrade rewrites existing results.
+@Service
+public class GradeStatsService {
+
+    private static final String UPSERT_STATS_SQL =
+        "INSERT INTO assignment_stats (assignment_type, results, passed, score_sum, compile_failures, " +
+        "grade_a, grade_b, grade_c, grade_d, grade_f, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW(6)) " +
+        "ON DUPLICATE KEY UPDATE results = results + VALUES(results), passed = passed + VALUES(passed), " +
+        "score_sum = score_sum + VALUES(score_sum), compile_failures = compile_failures + VALUES(compile_failures), " +
+        "grade_a = grade_a + VALUES(grade_a), grade_b = grade_b + VALUES(grade_b), grade_c = grade_c + VALUES(grade_c), " +
+        "grade_d = grade_d + VALUES(grade_d), grade_f = grade_f + VALUES(grade_f), updated_at = NOW(6)";
+
+    private static final String UPSERT_TEST_SQL =
+        "INSERT INTO assignment_test_stats (assignment_type, position, runs, failures) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE runs = runs + VALUES(runs), failures = failures + VALUES(failures)";
+
+    private static final String SELECT_STATS_SQL =
+        "SELECT assignment_type, results, passed, score_sum, compile_failures, grade_a, grade_b, grade_c, grade_d, grade_f " +
+        "FROM assignment_stats";
+
+    private static final String SELECT_TESTS_SQL =
+        "SELECT assignment_type, position, runs, failures FROM assignment_test_stats";
+
+    private static final String SCAN_RESULTS_SQL =
+        "SELECT a.assignment_type, r.score, r.passed, r.test_outcomes FROM evaluation_results r " +
+        "JOIN assignments a ON a.assignment_id = r.assignment_id " +
+        "WHERE (r.status = 'DONE' OR r.status IS NULL) AND a.assignment_type IS NOT NULL";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ResultEventBus resultEventBus;
+
+    @Autowired
+    private EvaluationEngine evaluationEngine;
+
+    @Autowired
+    private LoggingService loggingService;
+
+    private final long flushMillis;
+    private final String rebuildOnStartup;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by this: totals loaded from the database, deltas being written, deltas not yet written
+    private Map<String, GradeAggregate> persisted = new HashMap<>();
+    private Map<String, GradeAggregate> flushing = new HashMap<>();
+    private Map<String, GradeAggregate> pending = new HashMap<>();
+
+    public GradeStatsService(@Value("${evaluation.stats.flush-millis:5000}") long flushMillis,
+                             @Value("${evaluation.stats.rebuild-on-startup:if-empty}") String rebuildOnStartup) {
+        this.flushMillis = flushMillis;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "grade-stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        resultEventBus.subscribe(this::onResult);
+    }
+
+    // Loading and rebuilding run on the stats thread so a large rebuild does not hold up startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.execute(() -> {
+            try {
+                boolean empty = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM assignment_stats", Long.class) == 0;
+                if ("always".equalsIgnoreCase(rebuildOnStartup) || (empty && "if-empty".equalsIgnoreCase(rebuildOnStartup))) {
+                    doRebuild();
+                } else {
+                    reload();
+                }
+            } catch (Exception e) {
+                loggingService.logError("Failed to load grade statistics", e.getMessage(), "");
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void onResult(ResultEvent event) {
+        if (event.getStatus() != EvaluationStatus.DONE || event.getAssignmentType() == null) {
+            return;
+        }
+        synchronized (this) {
+            pending.computeIfAbsent(event.getAssignmentType(), type -> new GradeAggregate())
+                .record(event.getResult().getScore(), event.getResult().isPassed(), event.getResult().getTestOutcomes());
+        }
+    }
+
+    public Optional<AssignmentStatsView> getStats(String assignmentType) {
+        GradeAggregate total = new GradeAggregate();
+        boolean found = false;
+        synchronized (this) {
+            for (Map<String, GradeAggregate> layer : List.of(persisted, flushing, pending)) {
+                GradeAggregate part = layer.get(assignmentType);
+                if (part != null) {
+                    total.add(part);
+                    found = true;
+                }
+            }
+        }
+        return found ? Optional.of(view(assignmentType, total)) : Optional.empty();
+    }
+
+    public List<AssignmentStatsView> getAllStats() {
+        TreeSet<String> types = new TreeSet<>();
+        synchronized (this) {
+            types.addAll(persisted.keySet());
+            types.addAll(flushing.keySet());
+            types.addAll(pending.keySet());
+        }
+        List<AssignmentStatsView> views = new ArrayList<>(types.size());
+        for (String type : types) {
+            getStats(type).ifPresent(views::add);
+        }
+        return views;
+    }
+
+    // Recomputes the totals from evaluation_results; returns once the rebuild finished
+    public void rebuild() throws Exception {
+        Future<?> done = scheduler.submit(() -> {
+            doRebuild();
+            return null;
+        });
+        done.get();
+    }
+
+    private void flush() {
+        Map<String, GradeAggregate> batch;
+        synchronized (this) {
+            if (flushing.isEmpty()) {
+                batch = pending;
+                pending = new HashMap<>();
+                flushing = batch;
+            } else {
+                // The last write succeeded but its reload failed; only retry the reload
+                batch = Map.of();
+            }
+        }
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (Exception e) {
+                synchronized (this) {
+                    // Not written; the next flush retries these deltas
+                    for (Map.Entry<String, GradeAggregate> entry : batch.entrySet()) {
+                        pending.computeIfAbsent(entry.getKey(), type -> new GradeAggregate()).add(entry.getValue());
+                    }
+                    flushing = new HashMap<>();
+                }
+                loggingService.logError("Failed to flush grade statistics", e.getMessage(), "Types: " + batch.size());
+                return;
+            }
+        }
+        try {
+            // Also picks up what other nodes flushed
+            reload();
+        } catch (Exception e) {
+            // Written deltas stay in flushing until a reload includes them
+            loggingService.logError("Failed to reload grade statistics", e.getMessage(), "");
+        }
+    }
+
+    private void write(Map<String, GradeAggregate> deltas) {
+        List<Object[]> statsRows = new ArrayList<>();
+        List<Object[]> testRows = new ArrayList<>();
+        for (Map.Entry<String, GradeAggregate> entry : deltas.entrySet()) {
+            GradeAggregate delta = entry.getValue();
+            statsRows.add(new Object[] {entry.getKey(), delta.results, delta.passed, delta.scoreSum, delta.compileFailures,
+                delta.grades[0], delta.grades[1], delta.grades[2], delta.grades[3], delta.grades[4]});
+            for (int i = 0; i < delta.testRuns.length; i++) {
+                if (delta.testRuns[i] > 0) {
+                    testRows.add(new Object[] {entry.getKey(), i, delta.testRuns[i], delta.testFailures[i]});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_STATS_SQL, statsRows);
+        if (!testRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_TEST_SQL, testRows);
+        }
+    }
+
+    private void reload() {
+        Map<String, GradeAggregate> loaded = new HashMap<>();
+        jdbcTemplate.query(SELECT_STATS_SQL, (ResultSet rs) -> {
+            GradeAggregate aggregate = loaded.computeIfAbsent(rs.getString(1), type -> new GradeAggregate());
+            aggregate.results = rs.getLong(2);
+            aggregate.passed = rs.getLong(3);
+            aggregate.scoreSum = rs.getDouble(4);
+            aggregate.compileFailures = rs.getLong(5);
+            for (int i = 0; i < GradeAggregate.GRADES.length; i++) {
+                aggregate.grades[i] = rs.getLong(6 + i);
+            }
+        });
+        jdbcTemplate.query(SELECT_TESTS_SQL, (ResultSet rs) -> {
+            loaded.computeIfAbsent(rs.getString(1), type -> new GradeAggregate())
+                .recordTest(rs.getInt(2), rs.getLong(3), rs.getLong(4));
+        });
+        synchronized (this) {
+            persisted = loaded;
+            flushing = new HashMap<>();
+        }
+    }
+
+    // Counts arriving during the scan may be counted twice or not at all, so the totals are
+    // exact again only from the next rebuild; in practice the window is one statement start.
+    private void doRebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            pending = new HashMap<>();
+        }
+        Map<String, GradeAggregate> totals = new HashMap<>();
+        // Streams the rows instead of buffering the whole table (MySQL Connector/J needs Integer.MIN_VALUE)
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN_RESULTS_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            return statement;
+        }, (ResultSet rs) -> {
+            totals.computeIfAbsent(rs.getString(1), type -> new GradeAggregate())
+                .record(rs.getDouble(2), rs.getBoolean(3), rs.getString(4));
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM assignment_test_stats");
+            jdbcTemplate.update("DELETE FROM assignment_stats");
+            write(totals);
+        });
+        reload();
+        loggingService.logInfo("Grade statistics rebuilt", "Types: " + totals.size()
+            + ", Millis: " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private AssignmentStatsView view(String assignmentType, GradeAggregate total) {
+        Map<String, Long> grades = new LinkedHashMap<>();
+        for (int i = 0; i < GradeAggregate.GRADES.length; i++) {
+            grades.put(GradeAggregate.GRADES[i], total.grades[i]);
+        }
+        // Positions are labelled with the current suite; edits to a suite keep the counts of its old layout
+        List<TestCase> suite = evaluationEngine.getTestSuites().getSuite(assignmentType);
+        List<AssignmentStatsView.TestCaseStats> tests = new ArrayList<>(total.testRuns.length);
+        for (int i = 0; i < total.testRuns.length; i++) {
+            String description = i < suite.size() ? suite.get(i).getDescription() : null;
+            tests.add(new AssignmentStatsView.TestCaseStats(i, description, total.testRuns[i], total.testFailures[i]));
+        }
+        return new AssignmentStatsView(assignmentType, total.results, total.passed, total.scoreSum,
+            total.compileFailures, grades, tests);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Writes what this node counted since the last flush
+        scheduler.execute(this::flush);
+        scheduler.shutdown();
+        try {
+            if (scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        scheduler.shutdownNow();
+    }
+}
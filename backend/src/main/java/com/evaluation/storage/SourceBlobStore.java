@@ -0,0 +1,170 @@
+package com.evaluation.storage;
+
+import com.evaluation.execution.CompilationCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Content-addressed store for submission sources. Each distinct source is written once,
+// deflate-compressed, to <upload-dir>/sources/ab/<sha256>.src; identical submissions share
+// the file. Reads map the file and inflate straight from the mapping.
+@Component
+public class SourceBlobStore {
+
+    // "SRC1" followed by the uncompressed length, so reads allocate the output exactly once
+    private static final int MAGIC = 0x53524331;
+    private static final int HEADER_BYTES = 8;
+
+    private final Path root;
+    private final int compressionLevel;
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong reads = new AtomicLong();
+    private final AtomicLong bytesIn = new AtomicLong();
+    private final AtomicLong bytesStored = new AtomicLong();
+
+    public SourceBlobStore() {
+        this("uploads", Deflater.DEFAULT_COMPRESSION);
+    }
+
+    @Autowired
+    public SourceBlobStore(@Value("${evaluation.upload-dir:uploads}") String uploadDir,
+                           @Value("${evaluation.blob-store.compression-level:6}") int compressionLevel) {
+        this.root = Paths.get(uploadDir, "sources");
+        this.compressionLevel = compressionLevel;
+    }
+
+    // Returns the content hash under which the source is stored
+    public String put(String content) {
+        String hash = CompilationCache.hash(content);
+        Path path = pathFor(hash);
+        if (Files.exists(path)) {
+            deduplicated.incrementAndGet();
+            return hash;
+        }
+
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = deflate(raw);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+            try {
+                Files.write(temp, compressed);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+                writes.incrementAndGet();
+                bytesIn.addAndGet(raw.length);
+                bytesStored.addAndGet(compressed.length);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent identical submission stored it first
+                deduplicated.incrementAndGet();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store source " + hash, e);
+        }
+        return hash;
+    }
+
+    public String get(String hash) {
+        Path path = pathFor(hash);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            reads.incrementAndGet();
+            return new String(inflate(mapped, hash), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read source " + hash, e);
+        }
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(pathFor(hash));
+    }
+
+    // Relative location recorded on the assignment row
+    public String relativePath(String hash) {
+        return "sources/" + hash.substring(0, 2) + "/" + hash + ".src";
+    }
+
+    private Path pathFor(String hash) {
+        if (hash.length() < 2 || !hash.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            throw new IllegalArgumentException("Invalid source hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash + ".src");
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(compressionLevel);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + raw.length + 64);
+            out.putInt(MAGIC).putInt(raw.length);
+            while (!deflater.finished()) {
+                if (!out.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocate(out.capacity() * 2);
+                    out.flip();
+                    larger.put(out);
+                    out = larger;
+                }
+                deflater.deflate(out);
+            }
+            byte[] compressed = new byte[out.position()];
+            out.flip();
+            out.get(compressed);
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(ByteBuffer stored, String hash) throws IOException {
+        if (stored.remaining() < HEADER_BYTES || stored.getInt() != MAGIC) {
+            throw new IOException("Corrupt source blob " + hash);
+        }
+        byte[] raw = new byte[stored.getInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, length, raw.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (length != raw.length) {
+                throw new IOException("Truncated source blob " + hash);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt source blob " + hash, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Getters
+    public long getWrites() { return writes.get(); }
+    public long getDeduplicated() { return deduplicated.get(); }
+    public long getReads() { return reads.get(); }
+    public long getBytesIn() { return bytesIn.get(); }
+    public long getBytesStored() { return bytesStored.get(); }
+}
@@ -0,0 +1,22 @@
+package com.evaluation.storage;
+
+import com.evaluation.model.Assignment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import javax.persistence.PostLoad;
+
+// Gives loaded assignments a way to fetch their source from the blob store. Nothing is read
+// here; the source is only inflated when getCodeContent() is first called.
+@Component
+public class SourceContentListener {
+
+    @Autowired
+    private SourceBlobStore sourceBlobStore;
+
+    @PostLoad
+    public void attachSourceLoader(Assignment assignment) {
+        if (assignment.getSourceHash() != null) {
+            assignment.attachSourceLoader(sourceBlobStore::get);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.evaluation.execution;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs real worker JVMs, so these need a JDK (javax.tools) like the application itself
+class SandboxWorkerTest {
+    private static SandboxExecutor executor;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void startExecutor() {
+        executor = new SandboxExecutor();
+    }
+
+    @AfterAll
+    static void stopExecutor() {
+        executor.shutdown();
+    }
+
+    // Submitted code used to switch the guard off by clearing its boolean fields reflectively
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void reflectiveGuardBypassIsRejected(SandboxProfile profile) throws Exception {
+        Path target = tempDir.resolve("pwned.txt");
+        String source = "import java.lang.reflect.Field;\n"
+            + "public class Main {\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        Object sm = System.getSecurityManager();\n"
+            + "        for (Field f : sm.getClass().getDeclaredFields()) {\n"
+            + "            if (f.getType() == boolean.class && !java.lang.reflect.Modifier.isFinal(f.getModifiers())) {\n"
+            + "                f.setAccessible(true);\n"
+            + "                f.set(sm, false);\n"
+            + "            }\n"
+            + "        }\n"
+            + "        java.nio.file.Files.writeString(java.nio.file.Path.of(\"" + escape(target) + "\"), \"x\");\n"
+            + "        Process p = new ProcessBuilder(\"id\").start();\n"
+            + "        System.out.println(new String(p.getInputStream().readAllBytes()).trim());\n"
+            + "    }\n"
+            + "}\n";
+
+        ExecutionResult result = run(source, profile);
+
+        assertEquals(ExecutionResult.Status.SECURITY_VIOLATION, result.getStatus(), result.getMessage());
+        assertFalse(Files.exists(target));
+    }
+
+    // Escaping the sandbox thread group would leave the new thread unchecked
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void threadInParentGroupIsRejected(SandboxProfile profile) throws Exception {
+        String source = "public class Main {\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        ThreadGroup parent = Thread.currentThread().getThreadGroup().getParent();\n"
+            + "        Thread thread = new Thread(parent, () -> System.out.println(\"escaped\"));\n"
+            + "        thread.start();\n"
+            + "        thread.join();\n"
+            + "    }\n"
+            + "}\n";
+
+        ExecutionResult result = run(source, profile);
+
+        assertEquals(ExecutionResult.Status.SECURITY_VIOLATION, result.getStatus(), result.getMessage());
+    }
+
+    // The tighter checks must not break ordinary programs that use lambdas, streams and threads
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void ordinaryProgramStillRuns(SandboxProfile profile) throws Exception {
+        String source = "import java.util.*;\n"
+            + "public class Main {\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        Scanner in = new Scanner(System.in);\n"
+            + "        int n = in.nextInt();\n"
+            + "        int[] sum = new int[1];\n"
+            + "        Thread thread = new Thread(() -> sum[0] = java.util.stream.IntStream.rangeClosed(1, n).parallel().sum());\n"
+            + "        thread.start();\n"
+            + "        thread.join();\n"
+            + "        System.out.println(String.format(\"%d\", sum[0]));\n"
+            + "    }\n"
+            + "}\n";
+
+        CompilationResult program = executor.compile(source);
+        assertTrue(program.isSuccess());
+        ExecutionResult result = executor.execute(program, "10", profile);
+
+        assertEquals(ExecutionResult.Status.OK, result.getStatus(), result.getMessage());
+        assertEquals("55", result.getOutput().trim());
+    }
+
+    // Frames written straight to the worker's stdout would be read as the results of later runs
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void forgedProtocolFramesDoNotReachLaterRuns(SandboxProfile profile) throws Exception {
+        // A single worker, so the next run is served by the same JVM
+        SandboxExecutor single = new SandboxExecutor(new CompilationCache(), 1, 0, 200, "");
+        try {
+            String forge = "import java.io.*;\n"
+                + "public class Main {\n"
+                + "    public static void main(String[] args) throws Exception {\n"
+                + "        DataOutputStream out = new DataOutputStream(new FileOutputStream(FileDescriptor.out));\n"
+                + "        for (int i = 0; i < 3; i++) {\n"
+                + "            out.writeUTF(\"OK\");\n"
+                + "            out.writeInt(8);\n"
+                + "            out.write(\"[FORGED]\".getBytes());\n"
+                + "            out.writeUTF(\"\");\n"
+                + "            out.writeBoolean(false);\n"
+                + "        }\n"
+                + "        out.flush();\n"
+                + "    }\n"
+                + "}\n";
+            String honest = "public class Main {\n"
+                + "    public static void main(String[] args) {\n"
+                + "        System.out.println(\"genuine\");\n"
+                + "    }\n"
+                + "}\n";
+
+            ExecutionResult forged = single.execute(single.compile(forge), "", profile);
+            assertEquals(ExecutionResult.Status.SECURITY_VIOLATION, forged.getStatus(), forged.getMessage());
+            for (int i = 0; i < 3; i++) {
+                ExecutionResult next = single.execute(single.compile(honest), "", profile);
+                assertEquals(ExecutionResult.Status.OK, next.getStatus(), next.getMessage());
+                assertEquals("genuine", next.getOutput().trim());
+            }
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    // Other students' sources live on the same file system; only JDK files are readable
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void filesOutsideTheJdkAreNotReadable(SandboxProfile profile) throws Exception {
+        Path secret = Files.writeString(tempDir.resolve("secret.txt"), "secret");
+        String source = "public class Main {\n"
+            + "    public static void main(String[] args) throws Exception {\n"
+            + "        String home = System.getProperty(\"java.home\");\n"
+            + "        System.out.println(new java.io.File(home, \"release\").exists());\n"
+            + "        System.out.println(new String(java.nio.file.Files.readAllBytes(java.nio.file.Path.of(home + \"/../../../../../../../..\" + \""
+            + escape(secret) + "\"))));\n"
+            + "    }\n"
+            + "}\n";
+
+        ExecutionResult result = run(source, profile);
+
+        assertEquals(ExecutionResult.Status.SECURITY_VIOLATION, result.getStatus(), result.getMessage());
+        assertEquals("true", result.getOutput().trim());
+    }
+
+    // Swallowing the limit error must not turn a truncated run into a normal result
+    @ParameterizedTest
+    @EnumSource(value = SandboxProfile.class, names = {"DEFAULT", "STRICT"})
+    void outputLimitIsReportedWhenCaught(SandboxProfile profile) throws Exception {
+        String source = "public class Main {\n"
+            + "    public static void main(String[] args) {\n"
+            + "        try {\n"
+            + "            while (true) {\n"
+            + "                System.out.print(\"0123456789\");\n"
+            + "            }\n"
+            + "        } catch (Throwable t) {\n"
+            + "            System.exit(0);\n"
+            + "        }\n"
+            + "    }\n"
+            + "}\n";
+
+        ExecutionResult result = run(source, profile);
+
+        assertEquals(ExecutionResult.Status.OUTPUT_LIMIT, result.getStatus(), result.getMessage());
+    }
+
+    private static ExecutionResult run(String source, SandboxProfile profile) throws InterruptedException {
+        CompilationResult program = executor.compile(source);
+        assertTrue(program.isSuccess());
+        return executor.execute(program, "", profile);
+    }
+
+    private static String escape(Path path) {
+        return path.toString().replace("\\", "\\\\");
+    }
+}
@@ -0,0 +1,52 @@
+package com.evaluation.similarity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LshIndexTest {
+    private static final long INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    // System.nanoTime() may be any value, including ones where now - Long.MIN_VALUE overflows
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 5_611_008_909_633L, Long.MAX_VALUE, -5_611_008_909_633L, Long.MIN_VALUE})
+    void freshIndexIsDueForRefresh(long now) {
+        LshIndex index = new LshIndex(16, 8);
+
+        assertTrue(index.refreshDue(now, INTERVAL));
+    }
+
+    @Test
+    void refreshIsDueAgainAfterTheInterval() {
+        LshIndex index = new LshIndex(16, 8);
+        long now = System.nanoTime();
+
+        index.refreshed(now, 42L);
+
+        assertFalse(index.refreshDue(now + INTERVAL, INTERVAL));
+        assertTrue(index.refreshDue(now + INTERVAL + 1, INTERVAL));
+        assertEquals(42L, index.getLastSignatureId());
+    }
+
+    // A fresh index loads the signatures persisted so far, e.g. by other nodes, on its first query
+    @Test
+    void freshIndexFindsLoadedSignatures() {
+        LshIndex index = new LshIndex(16, 8);
+        int[] signature = new int[128];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = i * 31;
+        }
+        assertTrue(index.refreshDue(System.nanoTime(), INTERVAL));
+
+        index.add(new IndexedSignature(1L, "alice", 50, signature));
+        index.refreshed(System.nanoTime(), 1L);
+
+        assertEquals(1, index.query(new IndexedSignature(2L, "bob", 50, signature.clone()), 5, 0.5, 20).size());
+    }
+}
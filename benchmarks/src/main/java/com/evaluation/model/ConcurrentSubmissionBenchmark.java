@@ -0,0 +1,92 @@
+package com.evaluation.model;
+
+import com.evaluation.execution.CompilationCache;
+import com.evaluation.execution.SandboxExecutor;
+import com.evaluation.service.GradingQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Throughput of a burst of queued submissions through the grading queue and engine, with
+// platform threads (fixed grader pool) and with virtual threads. Each submission blocks on two
+// simulated database round trips around grading, as gradeQueued does. Virtual threads need a
+// JDK 21+ runtime; on older runtimes both variants run on platform threads.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConcurrentSubmissionBenchmark {
+
+    private static final int SUBMISSIONS = 64;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    // Simulated latency of each status/result save
+    @Param({"0", "5"})
+    public long persistMillis;
+
+    private SandboxExecutor sandboxExecutor;
+    private EvaluationEngine engine;
+    private GradingQueue gradingQueue;
+    private Assignment assignment;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sandboxExecutor = new SandboxExecutor(new CompilationCache(), 4, 4, 200);
+        // No result cache, so every submission executes its test cases
+        engine = new EvaluationEngine(sandboxExecutor, 4, 30000, 10000, "default", 0, virtualThreads);
+
+        Map<String, List<TestCase>> repository = new HashMap<>(engine.getTestRepository());
+        repository.put("add-numbers", SubmissionCorpus.addNumbersSuite(4));
+        engine.setTestRepository(repository);
+        engine.prewarmSandbox();
+
+        gradingQueue = new GradingQueue(4, SUBMISSIONS, 5, virtualThreads);
+        assignment = SubmissionCorpus.assignment(SubmissionCorpus.addNumbersSource(0));
+        assignment.setAssignmentType("add-numbers");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        gradingQueue.shutdown();
+        engine.shutdown();
+        sandboxExecutor.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SUBMISSIONS)
+    public void gradeBurst() throws InterruptedException {
+        CountDownLatch graded = new CountDownLatch(SUBMISSIONS);
+        for (int i = 0; i < SUBMISSIONS; i++) {
+            gradingQueue.reserve();
+            gradingQueue.submit(() -> {
+                try {
+                    persist();
+                    EvaluationResult result = engine.evaluateAssignment(assignment);
+                    result.generateReport();
+                    persist();
+                } finally {
+                    graded.countDown();
+                }
+            });
+        }
+        graded.await();
+    }
+
+    private void persist() {
+        if (persistMillis > 0) {
+            try {
+                Thread.sleep(persistMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.evaluation.model;
+
+import com.evaluation.execution.CompilationCache;
+import com.evaluation.execution.CompilationResult;
+import com.evaluation.execution.SandboxExecutor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Grading hot path, stage by stage. Run with "-prof gc" to see allocation per operation.
+// Execution stages spawn real sandbox worker JVMs, so they are prewarmed in setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EvaluationEngineBenchmark {
+
+    // Number of unused helper methods appended to the submission
+    @Param({"0", "500"})
+    public int helperCount;
+
+    // Number of test cases in the add-numbers suite
+    @Param({"4", "64"})
+    public int testCaseCount;
+
+    private CompilationCache compilationCache;
+    private SandboxExecutor sandboxExecutor;
+    private EvaluationEngine engine;
+    private Assignment assignment;
+    private CompilationResult program;
+    private List<TestCase> testCases;
+    private List<EvaluationEngine.TestResult> testResults;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        compilationCache = new CompilationCache();
+        sandboxExecutor = new SandboxExecutor(compilationCache, 4, 4, 200);
+        engine = new EvaluationEngine(sandboxExecutor, 4, 30000, 10000, "default", 10000, false);
+
+        testCases = SubmissionCorpus.addNumbersSuite(testCaseCount);
+        Map<String, List<TestCase>> repository = new HashMap<>(engine.getTestRepository());
+        repository.put("add-numbers", testCases);
+        engine.setTestRepository(repository);
+        engine.prewarmSandbox();
+
+        assignment = SubmissionCorpus.assignment(SubmissionCorpus.addNumbersSource(helperCount));
+        program = sandboxExecutor.compile(assignment.getCodeContent());
+        if (!program.isSuccess()) {
+            throw new IllegalStateException("Benchmark submission does not compile: " + program.getDiagnostics());
+        }
+        testResults = engine.runTestCases(program, testCases);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+        sandboxExecutor.shutdown();
+    }
+
+    // Full path with nothing cached: compile, execute every test case, build the result
+    @Benchmark
+    public EvaluationResult evaluateCold() {
+        compilationCache.clear();
+        engine.getResultCache().clear();
+        return engine.evaluateAssignment(assignment);
+    }
+
+    // Compilation served from the cache, test cases still executed
+    @Benchmark
+    public EvaluationResult evaluateCompiled() {
+        engine.getResultCache().clear();
+        return engine.evaluateAssignment(assignment);
+    }
+
+    // Identical resubmission answered from the result cache
+    @Benchmark
+    public EvaluationResult evaluateMemoized() {
+        return engine.evaluateAssignment(assignment);
+    }
+
+    @Benchmark
+    public String determineAssignmentType() {
+        return engine.determineAssignmentType(assignment);
+    }
+
+    @Benchmark
+    public CompilationResult compile() {
+        compilationCache.clear();
+        return sandboxExecutor.compile(assignment.getCodeContent());
+    }
+
+    @Benchmark
+    public List<EvaluationEngine.TestResult> runTestCases() throws InterruptedException {
+        return engine.runTestCases(program, testCases);
+    }
+
+    @Benchmark
+    public void generateEvaluationResult(Blackhole blackhole) {
+        EvaluationResult result = engine.generateEvaluationResult(assignment, testResults);
+        result.generateReport();
+        blackhole.consume(result);
+    }
+}
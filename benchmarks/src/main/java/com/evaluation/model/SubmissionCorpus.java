@@ -0,0 +1,55 @@
+package com.evaluation.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Synthetic submissions and test suites shared by the benchmarks
+final class SubmissionCorpus {
+
+    static final String TITLE = "Programming Assignment";
+
+    private SubmissionCorpus() {}
+
+    // An add-numbers solution padded with unused helpers; helperCount = 0 is a typical student submission
+    static String addNumbersSource(int helperCount) {
+        StringBuilder source = new StringBuilder();
+        source.append("import java.util.Scanner;\n\n");
+        source.append("public class AddNumbers {\n");
+        source.append("    public static void main(String[] args) {\n");
+        source.append("        Scanner scanner = new Scanner(System.in);\n");
+        source.append("        int a = scanner.nextInt();\n");
+        source.append("        int b = scanner.nextInt();\n");
+        source.append("        System.out.println(a + b);\n");
+        source.append("    }\n");
+        for (int i = 0; i < helperCount; i++) {
+            source.append("\n");
+            source.append("    // Helper ").append(i).append(" is never called\n");
+            source.append("    static int helper").append(i).append("(int value) {\n");
+            source.append("        int total = value;\n");
+            source.append("        for (int j = 0; j < ").append(i % 17 + 1).append("; j++) {\n");
+            source.append("            total += j * ").append(i).append(";\n");
+            source.append("        }\n");
+            source.append("        return total;\n");
+            source.append("    }\n");
+        }
+        source.append("}\n");
+        return source.toString();
+    }
+
+    static Assignment assignment(String source) {
+        Assignment assignment = new Assignment();
+        assignment.setTitle(TITLE);
+        assignment.setCodeContent(source);
+        return assignment;
+    }
+
+    static List<TestCase> addNumbersSuite(int count) {
+        List<TestCase> testCases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int a = i * 7 - 50;
+            int b = i * 3 + 11;
+            testCases.add(new TestCase(a + " " + b, String.valueOf(a + b), 1.0, "Add case " + i));
+        }
+        return testCases;
+    }
+}
@@ -0,0 +1,64 @@
+package com.evaluation.model;
+
+import com.evaluation.comparison.ComparisonMode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Output comparison runs once per test case, so it is measured on its own
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TestCaseBenchmark {
+
+    // Length of the expected output in lines
+    @Param({"1", "1000"})
+    public int lines;
+
+    @Param({"EXACT", "FLOAT_TOLERANCE"})
+    public ComparisonMode mode;
+
+    private TestCase testCase;
+    private TestCase partialCreditCase;
+    private String matchingOutput;
+    private String mismatchingOutput;
+
+    @Setup
+    public void setUp() {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            expected.append(i * 31).append(' ').append(i).append('\n');
+        }
+        testCase = new TestCase("", expected.toString().trim(), 1.0, "Generated output");
+        testCase.setComparisonMode(mode);
+        partialCreditCase = testCase.copy();
+        partialCreditCase.setPartialCredit(true);
+        matchingOutput = expected.toString();
+        mismatchingOutput = expected.substring(0, expected.length() - 2) + "x\n";
+    }
+
+    @Benchmark
+    public boolean validateMatching() {
+        return testCase.validateOutput(matchingOutput);
+    }
+
+    @Benchmark
+    public boolean validateMismatching() {
+        return testCase.validateOutput(mismatchingOutput);
+    }
+
+    // All-or-nothing scoring stops at the first difference
+    @Benchmark
+    public double partialScoreMismatching() {
+        return testCase.calculatePartialScore(mismatchingOutput);
+    }
+
+    // Partial credit compares every line
+    @Benchmark
+    public double partialCreditMismatching() {
+        return partialCreditCase.calculatePartialScore(mismatchingOutput);
+    }
+}
@@ -4,6 +4,8 @@ const API_BASE_URL = 'http://localhost:8080/api';
 // Global State
 let currentStudent = null;
 let currentAssignments = [];
+// Idempotency key of the submission being sent; reused when the same form is resubmitted
+let pendingSubmissionKey = null;
 
 // DOM Elements
 const loginSection = document.getElementById('loginSection');
@@ -35,6 +37,7 @@ function setupEventListeners() {
     
     // Assignment form
     assignmentForm.addEventListener('submit', handleAssignmentSubmission);
+    assignmentForm.addEventListener('input', () => { pendingSubmissionKey = null; });
     
     // Assignment type change
     document.getElementById('assignmentType').addEventListener('change', handleAssignmentTypeChange);
@@ -97,26 +100,49 @@ async function handleAssignmentSubmission(e) {
     
     showLoading(true);
     
+    if (!pendingSubmissionKey) {
+        pendingSubmissionKey = newSubmissionKey();
+    }
+    
     try {
         const response = await fetch(`${API_BASE_URL}/assignments/submit`, {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json',
+                'Idempotency-Key': pendingSubmissionKey,
             },
             body: JSON.stringify(formData)
         });
         
+        if (response.status === 429) {
+            const retryAfter = response.headers.get('Retry-After') || '5';
+            throw new Error(`Grading queue is busy, please retry in ${retryAfter} seconds`);
+        }
+        
         const result = await response.json();
         
         if (result.success) {
+            let evaluationResult = result.evaluationResult;
+            
+            // Accepted submissions are graded in the background
+            if (response.status === 202) {
+                showToast('Assignment submitted, waiting for evaluation...', 'info');
+                evaluationResult = await waitForEvaluation(result.assignmentId);
+            }
+            
+            if (evaluationResult.status === 'FAILED') {
+                throw new Error(evaluationResult.remarks);
+            }
+            
             showToast('Assignment submitted and evaluated successfully!', 'success');
             
             // Clear form
             assignmentForm.reset();
+            pendingSubmissionKey = null;
             setDefaultDeadline();
             
             // Show results
-            displayEvaluationResult(result.evaluationResult);
+            displayEvaluationResult(evaluationResult);
             showSection('results');
             
             // Refresh assignment history
@@ -134,6 +160,74 @@ async function handleAssignmentSubmission(e) {
     }
 }
 
+function newSubmissionKey() {
+    if (window.crypto && window.crypto.randomUUID) {
+        return window.crypto.randomUUID();
+    }
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}`;
+}
+
+// Wait for a queued submission to be graded, pushed over Server-Sent Events.
+// Falls back to polling when the stream cannot be opened or breaks off.
+async function waitForEvaluation(assignmentId) {
+    if (window.EventSource) {
+        const result = await streamEvaluation(assignmentId);
+        if (result) {
+            return result;
+        }
+    }
+    return pollEvaluation(assignmentId);
+}
+
+// Resolves with the graded result, or null when the stream fails
+function streamEvaluation(assignmentId) {
+    const timeoutMs = 120000;
+    
+    return new Promise((resolve, reject) => {
+        const source = new EventSource(`${API_BASE_URL}/results/assignment/${assignmentId}/events`);
+        const timer = setTimeout(() => {
+            source.close();
+            reject(new Error('Evaluation is taking longer than expected, check your results later'));
+        }, timeoutMs);
+        
+        source.addEventListener('result', event => {
+            const update = JSON.parse(event.data);
+            if (update.status === 'DONE' || update.status === 'FAILED') {
+                clearTimeout(timer);
+                source.close();
+                resolve(update.result);
+            }
+        });
+        
+        // The server closes the stream after the final result, so any error before it means the stream is lost
+        source.onerror = () => {
+            clearTimeout(timer);
+            source.close();
+            resolve(null);
+        };
+    });
+}
+
+// Poll the result of a queued submission until grading finishes
+async function pollEvaluation(assignmentId) {
+    const pollIntervalMs = 1000;
+    const maxAttempts = 120;
+    
+    for (let attempt = 0; attempt < maxAttempts; attempt++) {
+        await new Promise(resolve => setTimeout(resolve, pollIntervalMs));
+        
+        const response = await fetch(`${API_BASE_URL}/results/assignment/${assignmentId}`);
+        if (response.ok) {
+            const result = await response.json();
+            if (result.status === 'DONE' || result.status === 'FAILED') {
+                return result;
+            }
+        }
+    }
+    
+    throw new Error('Evaluation is taking longer than expected, check your results later');
+}
+
 // Load student data
 async function loadStudentData() {
     try {
@@ -199,14 +293,14 @@ function displayAssignmentHistory(results) {
     const historyHTML = results.map(result => `
         <div class="result-card ${result.passed ? '' : 'failed'}">
             <div class="result-header">
-                <h4>Assignment #${result.assignment?.assignmentId || 'N/A'}</h4>
+                <h4>Assignment #${result.assignmentId || 'N/A'}</h4>
                 <div class="score ${result.passed ? 'passed' : 'failed'}">
                     ${result.score.toFixed(1)}%
                 </div>
             </div>
             <div class="result-info">
-                <p><strong>Title:</strong> ${result.assignment?.title || 'N/A'}</p>
-                <p><strong>Submitted:</strong> ${formatDateTime(result.assignment?.submissionTime)}</p>
+                <p><strong>Title:</strong> ${result.title || 'N/A'}</p>
+                <p><strong>Submitted:</strong> ${formatDateTime(result.submissionTime)}</p>
                 <p><strong>Status:</strong> ${result.passed ? 'Passed' : 'Failed'}</p>
             </div>
         </div>
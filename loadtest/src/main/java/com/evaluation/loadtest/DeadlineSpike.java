@@ -0,0 +1,294 @@
+package com.evaluation.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Open-model load generator for the last minutes before a deadline. Arrivals follow a Poisson
+// process whose rate climbs quadratically from base-rate to peak-rate, independent of how fast
+// the server answers, and latency is measured from the intended arrival time so a stalled
+// server shows up in the percentiles instead of silently slowing the generator down.
+// Queued submissions are polled once a second, like the frontend does, until graded.
+public final class DeadlineSpike {
+
+    private static final Pattern ASSIGNMENT_ID = Pattern.compile("\"assignmentId\"\\s*:\\s*(\\d+)");
+    private static final Pattern STATUS = Pattern.compile("\"status\"\\s*:\\s*\"(\\w+)\"");
+    private static final int MAX_POLLS = 300;
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Duration timeout;
+    private final ScheduledExecutorService poller;
+    private final SourceCorpus corpus;
+    private final Random random;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger awaitingGrade = new AtomicInteger();
+    private final int maxInFlight;
+
+    private final LatencyStats submit = new LatencyStats("submit");
+    private final LatencyStats results = new LatencyStats("results/student");
+    private final LatencyStats assignments = new LatencyStats("assignments/student");
+    private final LatencyStats poll = new LatencyStats("results/assignment");
+    private final LatencyStats graded = new LatencyStats("submit-to-graded");
+
+    private DeadlineSpike(LoadTestConfig config) {
+        this.config = config;
+        this.baseUrl = config.getString("base-url").replaceAll("/+$", "");
+        this.timeout = Duration.ofSeconds(config.getLong("timeout"));
+        this.maxInFlight = config.getInt("max-in-flight");
+        ExecutorService httpExecutor = Executors.newCachedThreadPool(daemon("http"));
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(timeout)
+            .executor(httpExecutor)
+            .build();
+        this.poller = Executors.newScheduledThreadPool(2, daemon("poller"));
+        this.corpus = new SourceCorpus(config.getLong("seed"), config.getDouble("duplicate-ratio"));
+        this.random = new Random(config.getLong("seed") + 1);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        System.out.println("Deadline spike: " + config);
+        new DeadlineSpike(config).run();
+    }
+
+    private void run() throws InterruptedException {
+        int students = config.getInt("students");
+        double duration = config.getDouble("duration");
+        double baseRate = config.getDouble("base-rate");
+        double peakRate = config.getDouble("peak-rate");
+        double submitWeight = config.getDouble("submit-weight");
+        double resultsWeight = config.getDouble("results-weight");
+        double totalWeight = submitWeight + resultsWeight + config.getDouble("assignments-weight");
+        long reportIntervalNanos = TimeUnit.SECONDS.toNanos(config.getLong("report-interval"));
+
+        long start = System.nanoTime();
+        long end = start + (long) (duration * 1e9);
+        long nextReport = start + reportIntervalNanos;
+        long arrival = start;
+
+        while (arrival < end) {
+            double progress = (arrival - start) / (duration * 1e9);
+            double rate = baseRate + (peakRate - baseRate) * progress * progress;
+            arrival += (long) (-Math.log(1.0 - random.nextDouble()) / rate * 1e9);
+
+            long wait;
+            while ((wait = arrival - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (System.nanoTime() >= nextReport) {
+                report(start, rate);
+                nextReport += reportIntervalNanos;
+            }
+
+            String studentId = String.format("load-%05d", random.nextInt(students));
+            double pick = random.nextDouble() * totalWeight;
+            if (pick < submitWeight) {
+                submit(studentId, arrival);
+            } else if (pick < submitWeight + resultsWeight) {
+                get("/results/student/" + studentId, results, arrival);
+            } else {
+                get("/assignments/student/" + studentId, assignments, arrival);
+            }
+        }
+
+        double arrivalSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("Arrivals finished, waiting for " + inFlight.get() + " requests in flight and "
+            + awaitingGrade.get() + " submissions still being graded");
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(MAX_POLLS) + timeout.toNanos();
+        while ((inFlight.get() > 0 || awaitingGrade.get() > 0) && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        // Rates are over the arrival phase; the drain only completes requests already sent
+        printSummary(arrivalSeconds);
+        poller.shutdownNow();
+    }
+
+    private void submit(String studentId, long intendedStart) {
+        SourceCorpus.Submission submission = corpus.next();
+        String deadline = LocalDateTime.now().plusMinutes(10).truncatedTo(ChronoUnit.SECONDS)
+            .format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        String body = "{\"studentId\":" + json(studentId)
+            + ",\"title\":" + json(submission.title)
+            + ",\"assignmentType\":" + json(submission.assignmentType)
+            + ",\"deadline\":" + json(deadline)
+            + ",\"codeContent\":" + json(submission.source) + "}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/assignments/submit"))
+            .timeout(timeout)
+            .header("Content-Type", "application/json")
+            .header("Idempotency-Key", UUID.randomUUID().toString())
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+
+        send(request, submit, intendedStart).thenAccept(response -> {
+            if (response == null) {
+                return;
+            }
+            if (response.statusCode() == 202) {
+                Matcher id = ASSIGNMENT_ID.matcher(response.body());
+                if (id.find()) {
+                    awaitingGrade.incrementAndGet();
+                    schedulePoll(Long.parseLong(id.group(1)), intendedStart, 0);
+                }
+            } else if (response.statusCode() == 200) {
+                // Synchronous grading: the submit response already carries the result
+                graded.record(micros(intendedStart), 200);
+            }
+        });
+    }
+
+    private void schedulePoll(long assignmentId, long submittedAt, int attempt) {
+        if (attempt >= MAX_POLLS) {
+            graded.recordTimeout(micros(submittedAt));
+            awaitingGrade.decrementAndGet();
+            return;
+        }
+        poller.schedule(() -> {
+            long pollStart = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/results/assignment/" + assignmentId))
+                .timeout(timeout)
+                .GET()
+                .build();
+            send(request, poll, pollStart).thenAccept(response -> {
+                String status = null;
+                if (response != null && response.statusCode() == 200) {
+                    Matcher matcher = STATUS.matcher(response.body());
+                    status = matcher.find() ? matcher.group(1) : null;
+                }
+                if ("DONE".equals(status)) {
+                    graded.record(micros(submittedAt), 200);
+                    awaitingGrade.decrementAndGet();
+                } else if ("FAILED".equals(status)) {
+                    graded.record(micros(submittedAt), 500);
+                    awaitingGrade.decrementAndGet();
+                } else {
+                    schedulePoll(assignmentId, submittedAt, attempt + 1);
+                }
+            });
+        }, 1, TimeUnit.SECONDS);
+    }
+
+    private void get(String path, LatencyStats stats, long intendedStart) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(timeout)
+            .GET()
+            .build();
+        send(request, stats, intendedStart);
+    }
+
+    // Completes with null when the request was skipped or failed without a response
+    private CompletableFuture<HttpResponse<String>> send(HttpRequest request, LatencyStats stats, long intendedStart) {
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            stats.recordSkipped();
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .handle((response, error) -> {
+                inFlight.decrementAndGet();
+                if (error != null) {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof HttpTimeoutException) {
+                        stats.recordTimeout(micros(intendedStart));
+                    } else {
+                        stats.record(micros(intendedStart), -1);
+                    }
+                    return null;
+                }
+                stats.record(micros(intendedStart), response.statusCode());
+                return response;
+            });
+    }
+
+    private void report(long start, double rate) {
+        StringBuilder line = new StringBuilder(String.format("[%4ds] target=%.0f/s inFlight=%d",
+            (System.nanoTime() - start) / 1_000_000_000L, rate, inFlight.get()));
+        for (LatencyStats stats : List.of(submit, results, assignments, poll)) {
+            line.append(" | ").append(stats.intervalSummary());
+        }
+        System.out.println(line);
+    }
+
+    private void printSummary(double seconds) {
+        String[] header = {"endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms",
+            "2xx", "429", "errors", "skipped"};
+        List<String[]> rows = new ArrayList<>();
+        rows.add(header);
+        for (LatencyStats stats : List.of(submit, results, assignments, poll, graded)) {
+            rows.add(stats.summaryRow(seconds));
+        }
+
+        int[] widths = new int[header.length];
+        for (String[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+        System.out.printf("%nSummary over %.0f s of arrivals%n", seconds);
+        for (String[] row : rows) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < row.length; i++) {
+                String format = i == 0 ? "%-" + widths[i] + "s" : "  %" + widths[i] + "s";
+                line.append(String.format(format, row[i]));
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static long micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000;
+    }
+
+    private static String json(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': escaped.append("\\\""); break;
+                case '\\': escaped.append("\\\\"); break;
+                case '\n': escaped.append("\\n"); break;
+                case '\r': escaped.append("\\r"); break;
+                case '\t': escaped.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        escaped.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        escaped.append(c);
+                    }
+            }
+        }
+        return escaped.append('"').toString();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
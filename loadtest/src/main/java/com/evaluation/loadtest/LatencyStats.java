@@ -0,0 +1,89 @@
+package com.evaluation.loadtest;
+
+import java.util.Arrays;
+
+// Latencies of one endpoint. Every sample is kept (a 10 minute spike is a few hundred
+// thousand requests), so percentiles are exact rather than bucketed.
+final class LatencyStats {
+
+    private final String name;
+    private long[] micros = new long[4096];
+    private int count;
+    private long ok;
+    private long throttled;
+    private long errors;
+    private long timeouts;
+    private long skipped;
+    private int intervalStart;
+
+    LatencyStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(long latencyMicros, int status) {
+        if (count == micros.length) {
+            micros = Arrays.copyOf(micros, count * 2);
+        }
+        micros[count++] = latencyMicros;
+        if (status == 429) {
+            throttled++;
+        } else if (status >= 200 && status < 300) {
+            ok++;
+        } else {
+            errors++;
+        }
+    }
+
+    synchronized void recordTimeout(long latencyMicros) {
+        if (count == micros.length) {
+            micros = Arrays.copyOf(micros, count * 2);
+        }
+        micros[count++] = latencyMicros;
+        timeouts++;
+    }
+
+    // Arrival not sent because the in-flight limit was reached
+    synchronized void recordSkipped() {
+        skipped++;
+    }
+
+    // Percentiles of the samples recorded since the previous call
+    synchronized String intervalSummary() {
+        long[] window = Arrays.copyOfRange(micros, intervalStart, count);
+        intervalStart = count;
+        Arrays.sort(window);
+        return String.format("%s n=%d p50=%s p99=%s", name, window.length,
+            millis(percentile(window, 50)), millis(percentile(window, 99)));
+    }
+
+    synchronized String[] summaryRow(double seconds) {
+        long[] sorted = Arrays.copyOf(micros, count);
+        Arrays.sort(sorted);
+        long failed = errors + timeouts;
+        return new String[] {
+            name,
+            String.valueOf(count),
+            String.format("%.1f", count / seconds),
+            millis(percentile(sorted, 50)),
+            millis(percentile(sorted, 95)),
+            millis(percentile(sorted, 99)),
+            millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0),
+            String.valueOf(ok),
+            String.valueOf(throttled),
+            String.format("%d (%.2f%%)", failed, count > 0 ? 100.0 * failed / count : 0.0),
+            String.valueOf(skipped)
+        };
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.evaluation.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Command line options; every option has a default matching a mid-sized course deadline
+final class LoadTestConfig {
+
+    private static final Map<String, String[]> OPTIONS = new LinkedHashMap<>();
+
+    static {
+        OPTIONS.put("base-url", new String[] {"http://localhost:8080/api", "API base URL"});
+        OPTIONS.put("students", new String[] {"5000", "Distinct student ids"});
+        OPTIONS.put("duration", new String[] {"600", "Length of the run in seconds (the last minutes before the deadline)"});
+        OPTIONS.put("base-rate", new String[] {"5", "Requests per second at the start of the run"});
+        OPTIONS.put("peak-rate", new String[] {"150", "Requests per second at the deadline"});
+        OPTIONS.put("submit-weight", new String[] {"30", "Share of requests that submit code"});
+        OPTIONS.put("results-weight", new String[] {"50", "Share of requests that load a student's results"});
+        OPTIONS.put("assignments-weight", new String[] {"20", "Share of requests that load a student's assignments"});
+        OPTIONS.put("duplicate-ratio", new String[] {"0.15", "Share of submissions resubmitting an already seen source"});
+        OPTIONS.put("max-in-flight", new String[] {"2000", "Requests in flight before new arrivals are counted as skipped"});
+        OPTIONS.put("timeout", new String[] {"30", "Per-request timeout in seconds"});
+        OPTIONS.put("report-interval", new String[] {"10", "Seconds between progress lines"});
+        OPTIONS.put("seed", new String[] {"42", "Random seed, so runs are repeatable"});
+    }
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+
+    private LoadTestConfig() {
+        OPTIONS.forEach((name, option) -> values.put(name, option[0]));
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i].replaceFirst("^-+", "");
+            if (name.equals("help") || !OPTIONS.containsKey(name) || i + 1 >= args.length) {
+                usage();
+                if (!name.equals("help")) {
+                    throw new IllegalArgumentException("Unknown or incomplete option: " + args[i]);
+                }
+                System.exit(0);
+            }
+            config.values.put(name, args[++i]);
+        }
+        return config;
+    }
+
+    static void usage() {
+        System.out.println("Usage: java -jar loadtest.jar [-option value]...");
+        OPTIONS.forEach((name, option) ->
+            System.out.printf("  -%-20s %s (default %s)%n", name, option[1], option[0]));
+    }
+
+    String getString(String name) { return values.get(name); }
+    int getInt(String name) { return Integer.parseInt(values.get(name)); }
+    long getLong(String name) { return Long.parseLong(values.get(name)); }
+    double getDouble(String name) { return Double.parseDouble(values.get(name)); }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        values.forEach((name, value) -> text.append(name).append('=').append(value).append(' '));
+        return text.toString().trim();
+    }
+}
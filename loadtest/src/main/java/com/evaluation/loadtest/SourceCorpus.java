@@ -0,0 +1,104 @@
+package com.evaluation.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Submissions for the built-in assignment types in the proportions a class actually produces:
+// mostly correct, some with wrong output, a few that do not compile. Each generated source
+// differs in naming and comments so the result cache only hits on deliberate resubmissions.
+final class SourceCorpus {
+
+    static final class Submission {
+        final String title;
+        final String assignmentType;
+        final String source;
+
+        Submission(String title, String assignmentType, String source) {
+            this.title = title;
+            this.assignmentType = assignmentType;
+            this.source = source;
+        }
+    }
+
+    private final Random random;
+    private final double duplicateRatio;
+    private final List<Submission> seen = new ArrayList<>();
+
+    SourceCorpus(long seed, double duplicateRatio) {
+        this.random = new Random(seed);
+        this.duplicateRatio = duplicateRatio;
+    }
+
+    synchronized Submission next() {
+        if (!seen.isEmpty() && random.nextDouble() < duplicateRatio) {
+            return seen.get(random.nextInt(seen.size()));
+        }
+        Submission submission = generate();
+        if (seen.size() < 10_000) {
+            seen.add(submission);
+        }
+        return submission;
+    }
+
+    private Submission generate() {
+        String variable = "v" + Integer.toString(random.nextInt(1 << 20), 36);
+        String comment = "// attempt " + random.nextInt(1_000_000) + "\n";
+        double outcome = random.nextDouble();
+        boolean wrong = outcome >= 0.80 && outcome < 0.95;
+        boolean broken = outcome >= 0.95;
+
+        switch (random.nextInt(4)) {
+            case 0:
+                return new Submission("Hello World", "hello-world", comment
+                    + "public class HelloWorld {\n"
+                    + "    public static void main(String[] args) {\n"
+                    + "        String " + variable + " = \"" + (wrong ? "Hello world" : "Hello World") + "\";\n"
+                    + "        System.out.println(" + variable + ")" + (broken ? "" : ";") + "\n"
+                    + "    }\n"
+                    + "}\n");
+            case 1:
+                return new Submission("Add Two Numbers", "add-numbers", comment
+                    + "import java.util.Scanner;\n\n"
+                    + "public class AddNumbers {\n"
+                    + "    public static void main(String[] args) {\n"
+                    + "        Scanner " + variable + " = new Scanner(System.in);\n"
+                    + "        int a = " + variable + ".nextInt();\n"
+                    + "        int b = " + variable + ".nextInt();\n"
+                    + "        System.out.println(a " + (wrong ? "- " : "+ ") + "b)" + (broken ? "" : ";") + "\n"
+                    + "    }\n"
+                    + "}\n");
+            case 2:
+                return new Submission("Fibonacci Sequence", "fibonacci", comment
+                    + "import java.util.Scanner;\n\n"
+                    + "public class Fibonacci {\n"
+                    + "    public static void main(String[] args) {\n"
+                    + "        int n = new Scanner(System.in).nextInt();\n"
+                    + "        long a = 0, b = 1;\n"
+                    + "        StringBuilder " + variable + " = new StringBuilder();\n"
+                    + "        for (int i = 0; i < n; i++) {\n"
+                    + "            if (i > 0) " + variable + ".append(' ');\n"
+                    + "            " + variable + ".append(a);\n"
+                    + "            long next = a + b;\n"
+                    + "            a = b;\n"
+                    + "            b = " + (wrong ? "next + 1" : "next") + (broken ? "" : ";") + "\n"
+                    + "        }\n"
+                    + "        System.out.println(" + variable + ");\n"
+                    + "    }\n"
+                    + "}\n");
+            default:
+                return new Submission("Prime Check", "prime-check", comment
+                    + "import java.util.Scanner;\n\n"
+                    + "public class PrimeCheck {\n"
+                    + "    public static void main(String[] args) {\n"
+                    + "        int " + variable + " = new Scanner(System.in).nextInt();\n"
+                    + "        boolean prime = " + variable + " > " + (wrong ? "0" : "1") + ";\n"
+                    + "        for (int i = 2; (long) i * i <= " + variable + "; i++) {\n"
+                    + "            if (" + variable + " % i == 0) prime = false;\n"
+                    + "        }\n"
+                    + "        System.out.println(prime ? \"Prime\" : \"Not Prime\")" + (broken ? "" : ";") + "\n"
+                    + "    }\n"
+                    + "}\n");
+        }
+    }
+}